@@ -0,0 +1,48 @@
+package com.arsiwooqq.paymentservice;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed inputs and Spring Data mapping set up the way Spring Boot configures them, without a running Mongo.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String ORDER_ID = "7f1c2f2e-4c55-4f57-9a8e-3f5d5d0f6b11";
+    public static final String USER_ID = "0d7a9e0e-8f13-4f8b-b4a6-2b0f9a3c6e42";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Payment payment() {
+        return Payment.builder()
+                .id(UUID.fromString("3b241101-e2bb-4255-8caf-4136c566a962"))
+                .orderId(ORDER_ID)
+                .userId(USER_ID)
+                .status(PaymentStatus.PAID)
+                .timestamp(Instant.parse("2026-10-18T10:15:30.123Z"))
+                .paymentAmount(12_345L)
+                .outboxPending(true)
+                .build();
+    }
+
+    public static MappingMongoConverter mappingMongoConverter() {
+        var conversions = new MongoCustomConversions(List.of());
+        var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,27 @@
+package com.arsiwooqq.paymentservice;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the payment-service benchmarks with the GC profiler attached, so every result carries
+ * ops/s next to the allocation rate per operation. Results are also written to {@code jmh-result.json}.
+ * Accepts the usual JMH command line options, e.g. a benchmark regex or {@code -f 1 -wi 1 -i 1} for a smoke run.
+ */
+public class PaymentBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes PAYMENT_CREATED events to an embedded single-node KRaft broker with the producer settings
+ * of {@code application.yaml} ({@code default}) and of the {@code kafka-throughput} profile ({@code throughput}).
+ * {@link #burst()} measures sustained throughput, {@link #single()} the latency of one publish awaited on its own,
+ * which is where the longer linger of the throughput profile shows up.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KafkaProducerBenchmark {
+
+    private static final String TOPIC = "PAYMENT_CREATED";
+    private static final int BURST = 20_000;
+
+    @Param({"default", "throughput"})
+    public String profile;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private PaymentCreatedEvent event;
+
+    @Setup
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, 6, TOPIC);
+        broker.brokerProperties(Map.of("log.flush.interval.messages", "1000000"));
+        broker.afterPropertiesSet();
+
+        var config = new KafkaProducerConfig();
+        config.setBootstrapServers(broker.getBrokersAsString());
+        config.setTopicName(TOPIC);
+        config.setLinger("20");
+        config.setCompressionType("lz4");
+        config.setBatchSize("65536");
+        if ("throughput".equals(profile)) {
+            config.setLinger("50");
+            config.setCompressionType("zstd");
+            config.setBatchSize("262144");
+            config.setBufferMemory("67108864");
+        }
+        kafkaTemplate = config.kafkaTemplate(config.producerFactory(new SimpleMeterRegistry()));
+        event = new PaymentCreatedEvent(BenchmarkFixtures.ORDER_ID, PaymentStatus.PAID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        kafkaTemplate.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(BURST)
+    public void burst() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<SendResult<String, Object>>[] futures = new CompletableFuture[BURST];
+        for (int i = 0; i < BURST; i++) {
+            futures[i] = kafkaTemplate.send(TOPIC, Integer.toString(i), event);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public SendResult<String, Object> single() {
+        return kafkaTemplate.send(TOPIC, BenchmarkFixtures.ORDER_ID, event).join();
+    }
+}
@@ -0,0 +1,69 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializes an ORDER_CREATED record with the JsonDeserializer configured from
+ * {@link KafkaConsumerConfig#consumerFactory()}, including the order-service type id header mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrderCreatedEventDeserializationBenchmark {
+
+    private Deserializer<Object> deserializer;
+    private byte[] typeId;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        var config = new KafkaConsumerConfig();
+        config.setBootstrapServers("localhost:9092");
+        config.setGroupId("payment-service-benchmarks");
+        config.setTrustedPackages("com.arsiwooqq.orderservice.event");
+
+        deserializer = new JsonDeserializer<>();
+        deserializer.configure(config.consumerFactory().getConfigurationProperties(), false);
+
+        typeId = "com.arsiwooqq.orderservice.event.OrderCreatedEvent".getBytes(StandardCharsets.UTF_8);
+        payload = ("{\"orderId\":\"" + BenchmarkFixtures.ORDER_ID + "\","
+                + "\"userId\":\"" + BenchmarkFixtures.USER_ID + "\","
+                + "\"paymentAmount\":12345}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+    }
+
+    /**
+     * The deserializer removes the type id header it consumed, so every record gets fresh headers as from the broker.
+     */
+    @Benchmark
+    public Object deserialize() {
+        var headers = new RecordHeaders();
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, typeId);
+        return deserializer.deserialize("ORDER_CREATED", headers, payload);
+    }
+}
@@ -0,0 +1,135 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.dto.ApiResponse;
+import com.arsiwooqq.paymentservice.security.JwtFilter;
+import com.arsiwooqq.paymentservice.security.TokenVerificationCache;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves authenticated requests from an embedded Tomcat in both {@link Threading} modes, set up the way
+ * Spring Boot does for {@code spring.threads.virtual.enabled}: the default 200-thread pool, or a virtual thread
+ * per request. Every request passes {@link JwtFilter} with an empty verification cache, so it makes the blocking
+ * auth-service call, stubbed here with {@code downstreamMillis} of latency. With more concurrent clients than
+ * pool threads, requests queue in the platform mode and not in the virtual one.
+ * Reports requests per second and the latency distribution, p99 included.
+ * <p>
+ * The virtual mode needs a Java 21 runtime. Listener containers are left out: they run one thread per partition
+ * and the payment decision is non-blocking, so their threading mode only changes which thread parks in
+ * the per-batch {@code block()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public Threading threading;
+
+    @Param({"20"})
+    public long downstreamMillis;
+
+    private WebServer webServer;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        var environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(threading == Threading.VIRTUAL));
+        if (!threading.isActive(environment)) {
+            throw new IllegalStateException(threading + " threading is not available on Java "
+                    + Runtime.version().feature());
+        }
+
+        var jwtFilter = new JwtFilter(
+                validateRequest -> {
+                    try {
+                        Thread.sleep(downstreamMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ApiResponse.success("Token is valid", true);
+                },
+                new TokenVerificationCache(0, Duration.ofHours(1)),
+                new SimpleMeterRegistry()
+        );
+        var factory = new TomcatServletWebServerFactory(0);
+        if (threading == Threading.VIRTUAL) {
+            new TomcatVirtualThreadsWebServerFactoryCustomizer().customize(factory);
+        }
+        webServer = factory.getWebServer(servletContext -> {
+            servletContext.addFilter("jwtFilter", jwtFilter).addMappingForUrlPatterns(null, false, "/*");
+            servletContext.addServlet("payments", new AuthenticatedServlet()).addMapping("/*");
+        });
+        webServer.start();
+
+        var token = JWT.create()
+                .withSubject(BenchmarkFixtures.USER_ID)
+                .withClaim("role", "ROLE_USER")
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .sign(Algorithm.HMAC256("benchmark-secret"));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + webServer.getPort() + "/api/v1/payments"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        webServer.stop();
+    }
+
+    @Benchmark
+    @Threads(400)
+    public int request() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static class AuthenticatedServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+            var authenticated = SecurityContextHolder.getContext().getAuthentication() != null;
+            SecurityContextHolder.clearContext();
+            response.setStatus(authenticated ? HttpServletResponse.SC_OK : HttpServletResponse.SC_UNAUTHORIZED);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.arsiwooqq.paymentservice.entity;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapperImpl;
+import com.arsiwooqq.paymentservice.mapper.PaymentResponseReadConverter;
+import com.mongodb.MongoClientSettings;
+import org.bson.RawBsonDocument;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a {@link Payment} to and from BSON the way MongoTemplate does:
+ * entity to {@link Document} through MappingMongoConverter, then encoding with the driver codec.
+ * The search path is measured both ways: entity then {@link PaymentMapper}, and
+ * {@link PaymentResponseReadConverter} straight from the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PaymentBsonMappingBenchmark {
+
+    private MappingMongoConverter converter;
+    private PaymentMapper paymentMapper;
+    private PaymentResponseReadConverter responseConverter;
+    private Codec<Document> documentCodec;
+    private Payment payment;
+    private RawBsonDocument encoded;
+
+    @Setup
+    public void setUp() {
+        converter = BenchmarkFixtures.mappingMongoConverter();
+        paymentMapper = new PaymentMapperImpl();
+        responseConverter = new PaymentResponseReadConverter();
+        documentCodec = CodecRegistries.withUuidRepresentation(
+                MongoClientSettings.getDefaultCodecRegistry(), UuidRepresentation.JAVA_LEGACY
+        ).get(Document.class);
+        payment = BenchmarkFixtures.payment();
+        encoded = write();
+    }
+
+    @Benchmark
+    public RawBsonDocument write() {
+        var document = new Document();
+        converter.write(payment, document);
+        return new RawBsonDocument(document, documentCodec);
+    }
+
+    @Benchmark
+    public Payment read() {
+        return converter.read(Payment.class, encoded.decode(documentCodec));
+    }
+
+    @Benchmark
+    public PaymentResponse readAndMapResponse() {
+        return paymentMapper.toResponse(converter.read(Payment.class, encoded.decode(documentCodec)));
+    }
+
+    @Benchmark
+    public PaymentResponse readResponse() {
+        return responseConverter.convert(encoded.decode(documentCodec));
+    }
+}
@@ -0,0 +1,84 @@
+package com.arsiwooqq.paymentservice.event.codec;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.enums.EventFormat;
+import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes an ORDER_CREATED event as JSON (type headers included) and with
+ * {@link BinaryEventCodec}, through the consumer-side {@link BinaryOrJsonEventDeserializer} in both cases.
+ * The payload and header size of each format is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EventCodecBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    public EventFormat format;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private OrderCreatedEvent event;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        serializer = format == EventFormat.BINARY ? new BinaryEventSerializer() : new JsonSerializer<>();
+        deserializer = new BinaryOrJsonEventDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+
+        event = new OrderCreatedEvent(BenchmarkFixtures.ORDER_ID, BenchmarkFixtures.USER_ID, 12_345L);
+        headers = new RecordHeaders();
+        payload = serializer.serialize("ORDER_CREATED", headers, event);
+
+        var headerBytes = 0;
+        for (var header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        System.out.printf("%n%s: payload %d bytes, headers %d bytes%n", format, payload.length, headerBytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("ORDER_CREATED", new RecordHeaders(), event);
+    }
+
+    /**
+     * The JSON deserializer removes the type id header it consumed, so every record gets a fresh copy.
+     */
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize("ORDER_CREATED", new RecordHeaders(headers.toArray()), payload);
+    }
+}
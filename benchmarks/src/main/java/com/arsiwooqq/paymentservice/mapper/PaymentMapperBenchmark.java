@@ -0,0 +1,40 @@
+package com.arsiwooqq.paymentservice.mapper;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PaymentMapperBenchmark {
+
+    private PaymentMapper paymentMapper;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        paymentMapper = new PaymentMapperImpl();
+        payment = BenchmarkFixtures.payment();
+    }
+
+    @Benchmark
+    public PaymentResponse toResponse() {
+        return paymentMapper.toResponse(payment);
+    }
+}
@@ -0,0 +1,62 @@
+package com.arsiwooqq.paymentservice.repository;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the payment search query with every filter set and maps it to the Mongo filter and sort documents,
+ * as MongoTemplate does before each find and count of {@code PaymentServiceImpl.search}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PaymentSearchQueryBenchmark {
+
+    private QueryMapper queryMapper;
+    private MongoPersistentEntity<?> entity;
+    private List<String> statuses;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        var converter = BenchmarkFixtures.mappingMongoConverter();
+        queryMapper = new QueryMapper(converter);
+        entity = converter.getMappingContext().getRequiredPersistentEntity(Payment.class);
+        statuses = List.of("PAID", "failed");
+        pageable = PageRequest.of(3, 20, Sort.by(Sort.Direction.DESC, "timestamp"));
+    }
+
+    @Benchmark
+    public void buildAndMapQuery(Blackhole blackhole) {
+        var query = PaymentQueries.filter(BenchmarkFixtures.ORDER_ID, BenchmarkFixtures.USER_ID, statuses)
+                .with(pageable);
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        blackhole.consume(filter);
+        blackhole.consume(sort);
+        blackhole.consume(query.getSkip());
+    }
+}
@@ -0,0 +1,82 @@
+package com.arsiwooqq.paymentservice.security;
+
+import com.arsiwooqq.paymentservice.BenchmarkFixtures;
+import com.arsiwooqq.paymentservice.dto.ApiResponse;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling per request: a bare decode of the bearer token, and the whole {@link JwtFilter}
+ * pass for a token that is already in the verification cache, which is the steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private String token;
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        token = JWT.create()
+                .withSubject(BenchmarkFixtures.USER_ID)
+                .withClaim("role", "ROLE_USER")
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .sign(Algorithm.HMAC256("benchmark-secret"));
+        jwtFilter = new JwtFilter(
+                validateRequest -> ApiResponse.success("Token is valid", true),
+                new TokenVerificationCache(10_000, Duration.ofHours(1)),
+                new SimpleMeterRegistry()
+        );
+        request = new MockHttpServletRequest("GET", "/api/v1/payments/search");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        jwtFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        var decoded = JWT.decode(token);
+        blackhole.consume(decoded.getSubject());
+        blackhole.consume(decoded.getClaim("role").asString());
+        blackhole.consume(decoded.getExpiresAtAsInstant());
+    }
+
+    @Benchmark
+    public Object filterCachedToken() throws Exception {
+        jwtFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,53 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Near cache of the payment of each recent order.
+ * <p>
+ * A payment is written once per order and never changes afterwards, so {@link #record(List)} puts newly
+ * persisted payments straight into the cache and entries never need invalidation. Orders without a payment
+ * are not cached, because their payment may be stored right after the lookup.
+ */
+public class OrderPaymentCache {
+
+    private final Cache<String, PaymentResponse> cache;
+    private final PaymentMapper paymentMapper;
+
+    public OrderPaymentCache(long maxSize, Duration expireAfterWrite, PaymentMapper paymentMapper,
+                             MeterRegistry meterRegistry) {
+        this.paymentMapper = paymentMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment.order");
+    }
+
+    public Optional<PaymentResponse> get(String orderId, Function<String, PaymentResponse> loader) {
+        return Optional.ofNullable(cache.get(orderId, loader));
+    }
+
+    /**
+     * Puts persisted payments into the cache.
+     */
+    public void record(List<Payment> payments) {
+        for (var payment : payments) {
+            if (payment.getOrderId() != null) {
+                cache.put(payment.getOrderId(), paymentMapper.toResponse(payment));
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches totals of paid payments per {@code [from, to]} window.
+ * <p>
+ * A window that ended more than {@code settleWindow} ago cannot receive new payments, because payments
+ * are timestamped when they are created. It expires after {@code settledTtl}, since its total may still
+ * miss payments whose rollups were reconciled after it was loaded.
+ * A window that is still open gets the paid payments this instance persists added by {@link #record(List)}.
+ * Payments persisted by other instances are not seen, so such windows expire after {@code liveTtl}.
+ * Open windows are tracked apart from the cache, so recording never scans settled ones, and are dropped
+ * from tracking once they settle or leave the cache.
+ * <p>
+ * {@link #invalidate(Instant, Instant)} drops windows whose totals changed behind the cache, as when this
+ * instance reconciles rollups. A cached total therefore lags the rollups by at most {@code liveTtl}
+ * for an open window and {@code settledTtl} for a settled one, which is the drift across replicas.
+ */
+public class PaymentSummaryCache {
+
+    private final Cache<Window, Long> cache;
+    private final Set<Window> liveWindows = ConcurrentHashMap.newKeySet();
+    private final Duration settleWindow;
+
+    public PaymentSummaryCache(long maxSize, Duration liveTtl, Duration settledTtl, Duration settleWindow,
+                               MeterRegistry meterRegistry) {
+        this.settleWindow = settleWindow;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Window, Long>() {
+                    @Override
+                    public long expireAfterCreate(Window window, Long total, long currentTime) {
+                        return (isSettled(window) ? settledTtl : liveTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Window window, Long total, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Window window, Long total, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .evictionListener((Window window, Long total, RemovalCause cause) -> liveWindows.remove(window))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment.summary");
+    }
+
+    public Long get(Instant from, Instant to, Supplier<Long> loader) {
+        return cache.get(new Window(from, to), window -> {
+            if (!isSettled(window)) {
+                liveWindows.add(window);
+            }
+            return loader.get();
+        });
+    }
+
+    /**
+     * Adds persisted paid payments to the cached windows they fall into.
+     */
+    public void record(List<Payment> payments) {
+        var paid = payments.stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.PAID
+                        && payment.getTimestamp() != null && payment.getPaymentAmount() != null)
+                .toList();
+        if (paid.isEmpty() || liveWindows.isEmpty()) {
+            return;
+        }
+        for (var window : liveWindows) {
+            if (isSettled(window)) {
+                liveWindows.remove(window);
+                continue;
+            }
+            long added = 0;
+            for (var payment : paid) {
+                if (window.contains(payment.getTimestamp().truncatedTo(ChronoUnit.MILLIS))) {
+                    added += payment.getPaymentAmount();
+                }
+            }
+            if (added != 0) {
+                var amount = added;
+                cache.asMap().computeIfPresent(window, (key, total) -> total + amount);
+            }
+        }
+    }
+
+    /**
+     * Drops cached windows overlapping {@code [from, to)}.
+     */
+    public void invalidate(Instant from, Instant to) {
+        liveWindows.removeIf(window -> window.overlaps(from, to));
+        cache.asMap().keySet().removeIf(window -> window.overlaps(from, to));
+    }
+
+    int liveWindowCount() {
+        return liveWindows.size();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private boolean isSettled(Window window) {
+        return window.to().isBefore(Instant.now().minus(settleWindow));
+    }
+
+    private record Window(Instant from, Instant to) {
+        boolean contains(Instant timestamp) {
+            return !timestamp.isBefore(from) && !timestamp.isAfter(to);
+        }
+
+        boolean overlaps(Instant start, Instant end) {
+            return start.compareTo(to) <= 0 && end.isAfter(from);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the latest {@code capacity} payments of recently active users, newest first.
+ * <p>
+ * A user's history is loaded once on a miss and then kept current by {@link #record(List)}, which merges
+ * newly persisted payments into histories that are already cached. Users that are not cached are left alone,
+ * because a history built only from new writes would miss older payments. Payments already present are
+ * skipped by id, so a write that raced with the load is not counted twice.
+ * <p>
+ * A history expires {@code expireAfterWrite} after it was loaded, whether it is read or merged into meanwhile,
+ * so payments this instance never sees, such as those written by another replica, are
+ * picked up by the next load and staleness stays bounded by that TTL.
+ */
+public class RecentPaymentsCache {
+
+    private static final Comparator<PaymentResponse> NEWEST_FIRST = Comparator
+            .comparing(PaymentResponse::timestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PaymentResponse::id, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final Cache<String, List<PaymentResponse>> cache;
+    private final PaymentMapper paymentMapper;
+    private final int capacity;
+
+    public RecentPaymentsCache(int capacity, long maxUsers, Duration expireAfterWrite,
+                               PaymentMapper paymentMapper, MeterRegistry meterRegistry) {
+        this(capacity, maxUsers, expireAfterWrite, paymentMapper, meterRegistry, Ticker.systemTicker());
+    }
+
+    RecentPaymentsCache(int capacity, long maxUsers, Duration expireAfterWrite,
+                        PaymentMapper paymentMapper, MeterRegistry meterRegistry, Ticker ticker) {
+        this.capacity = capacity;
+        this.paymentMapper = paymentMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfter(Expiry.<String, List<PaymentResponse>>creating((key, history) -> expireAfterWrite))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment.recent");
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the cached history of the user, loading at most {@code capacity} newest payments on a miss.
+     */
+    public List<PaymentResponse> get(String userId, Function<String, List<PaymentResponse>> loader) {
+        return cache.get(userId, key -> trim(loader.apply(key)));
+    }
+
+    /**
+     * Merges persisted payments into the histories of their users, if those are cached.
+     */
+    public void record(List<Payment> payments) {
+        if (payments.isEmpty() || cache.estimatedSize() == 0) {
+            return;
+        }
+        Map<String, List<Payment>> byUser = payments.stream()
+                .filter(payment -> payment.getUserId() != null)
+                .collect(Collectors.groupingBy(Payment::getUserId));
+        byUser.forEach((userId, added) -> cache.asMap().computeIfPresent(userId, (key, history) -> {
+            var ids = history.stream().map(PaymentResponse::id).collect(Collectors.toCollection(HashSet::new));
+            var merged = new ArrayList<>(history);
+            for (var payment : added) {
+                if (ids.add(payment.getId())) {
+                    merged.add(paymentMapper.toResponse(payment));
+                }
+            }
+            return trim(merged);
+        }));
+    }
+
+    private List<PaymentResponse> trim(List<PaymentResponse> payments) {
+        return payments.stream()
+                .sorted(NEWEST_FIRST)
+                .limit(capacity)
+                .toList();
+    }
+}
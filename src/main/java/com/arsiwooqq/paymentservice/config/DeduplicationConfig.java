@@ -0,0 +1,31 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.util.RotatingBloomFilter;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.dedupe")
+@Validated
+@Getter
+@Setter
+public class DeduplicationConfig {
+
+    @Positive
+    private long expectedInsertions = 1_000_000;
+
+    @Positive
+    @DecimalMax(value = "1", inclusive = false)
+    private double falsePositiveProbability = 0.01;
+
+    @Bean
+    public RotatingBloomFilter recentOrderFilter() {
+        return new RotatingBloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+}
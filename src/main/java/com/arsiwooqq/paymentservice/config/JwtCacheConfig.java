@@ -0,0 +1,32 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.security.TokenVerificationCache;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "jwt.cache")
+@Validated
+@Getter
+@Setter
+public class JwtCacheConfig {
+
+    @Positive
+    private long maxSize = 10_000;
+
+    @NotNull
+    private Duration maxTtl = Duration.ofMinutes(5);
+
+    @Bean
+    public TokenVerificationCache tokenVerificationCache() {
+        return new TokenVerificationCache(maxSize, maxTtl);
+    }
+}
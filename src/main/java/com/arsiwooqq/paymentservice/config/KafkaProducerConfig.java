@@ -1,10 +1,13 @@
 package com.arsiwooqq.paymentservice.config;
 
-import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import com.arsiwooqq.paymentservice.enums.EventFormat;
+import com.arsiwooqq.paymentservice.event.codec.BinaryEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -13,11 +16,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Configuration
 @ConfigurationProperties(prefix = "kafka.producer")
@@ -68,20 +74,36 @@ public class KafkaProducerConfig {
 
     private String deliveryTimeout = "120000";
 
-    @Bean
-    public ProducerFactory<String, PaymentCreatedEvent> paymentCreatedEventProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerFactoryConfig());
-    }
+    private String compressionType = "none";
 
-    @Bean
-    public KafkaTemplate<String, PaymentCreatedEvent> paymentCreatedEventKafkaTemplate(
-            ProducerFactory<String, PaymentCreatedEvent> factory) {
-        return new KafkaTemplate<>(factory);
-    }
+    private String batchSize = "65536";
+
+    /**
+     * Must stay at or below 5 while idempotence is enabled, otherwise ordering per partition is not guaranteed.
+     */
+    private String maxInFlightRequests = "5";
+
+    private String bufferMemory = "33554432";
+
+    /**
+     * Payload format of produced events. Consumers of PAYMENT_CREATED must read binary before this is switched.
+     */
+    private EventFormat valueFormat = EventFormat.JSON;
 
+    /**
+     * The single producer of the service. PAYMENT_CREATED is written in {@link #valueFormat},
+     * every other topic (the dead letter topics) in JSON so failed records stay readable.
+     */
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerFactoryConfig());
+    public ProducerFactory<String, Object> producerFactory(MeterRegistry meterRegistry) {
+        Map<Pattern, Serializer<?>> serializers = Map.of(
+                Pattern.compile(Pattern.quote(topicName)),
+                valueFormat == EventFormat.BINARY ? new BinaryEventSerializer() : new JsonSerializer<>()
+        );
+        var factory = new DefaultKafkaProducerFactory<String, Object>(producerFactoryConfig(),
+                new StringSerializer(), new DelegatingByTopicSerializer(serializers, new JsonSerializer<>()));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -93,13 +115,15 @@ public class KafkaProducerConfig {
     private Map<String, Object> producerFactoryConfig() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, acks);
         config.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeout);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
         config.put(ProducerConfig.LINGER_MS_CONFIG, linger);
         config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeout);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
 
         return config;
     }
@@ -0,0 +1,34 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.cache.OrderPaymentCache;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.order.cache")
+@Validated
+@Getter
+@Setter
+public class OrderPaymentCacheConfig {
+
+    @Positive
+    private long maxSize = 100_000;
+
+    @NotNull
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    @Bean
+    public OrderPaymentCache orderPaymentCache(PaymentMapper paymentMapper, MeterRegistry meterRegistry) {
+        return new OrderPaymentCache(maxSize, expireAfterWrite, paymentMapper, meterRegistry);
+    }
+}
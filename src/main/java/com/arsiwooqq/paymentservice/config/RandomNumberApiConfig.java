@@ -0,0 +1,103 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.service.PaymentStatusSource;
+import com.arsiwooqq.paymentservice.service.impl.PrefetchingPaymentStatusSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "random-number-api")
+@Validated
+@Getter
+@Setter
+public class RandomNumberApiConfig {
+
+    @NotNull
+    private String url;
+
+    @Positive
+    private int batchSize = 1000;
+
+    @Positive
+    private int bufferCapacity = 2000;
+
+    private int lowWaterMark = 500;
+
+    private Duration timeout = Duration.ofSeconds(5);
+
+    private Duration maxWait = Duration.ofMillis(200);
+
+    @Valid
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+    @Bean
+    public CircuitBreaker randomNumberApiCircuitBreaker(MeterRegistry meterRegistry) {
+        var config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+                .failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+                .slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(circuitBreaker.getSlowCallDurationThreshold())
+                .waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build();
+        var registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("random-number-api");
+    }
+
+    @Bean
+    public PaymentStatusSource paymentStatusSource(WebClient.Builder builder, CircuitBreaker randomNumberApiCircuitBreaker,
+                                                   MeterRegistry meterRegistry) {
+        return new PrefetchingPaymentStatusSource(
+                builder.build(),
+                url,
+                bufferCapacity,
+                batchSize,
+                lowWaterMark,
+                timeout,
+                maxWait,
+                randomNumberApiCircuitBreaker,
+                meterRegistry
+        );
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerProperties {
+
+        @Positive
+        private int slidingWindowSize = 10;
+
+        @Positive
+        private int minimumNumberOfCalls = 5;
+
+        @Positive
+        @Max(100)
+        private float failureRateThreshold = 50;
+
+        @Positive
+        @Max(100)
+        private float slowCallRateThreshold = 50;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,40 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.cache.RecentPaymentsCache;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.recent.cache")
+@Validated
+@Getter
+@Setter
+public class RecentPaymentsCacheConfig {
+
+    @Positive
+    private int capacity = 20;
+
+    @Positive
+    private long maxUsers = 10_000;
+
+    /**
+     * How long a loaded history is served before it is reloaded, bounding how stale it can get.
+     */
+    @NotNull
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+    @Bean
+    public RecentPaymentsCache recentPaymentsCache(PaymentMapper paymentMapper, MeterRegistry meterRegistry) {
+        return new RecentPaymentsCache(capacity, maxUsers, expireAfterWrite, paymentMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.cache.PaymentSummaryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment.summary.cache")
+@Validated
+@Getter
+@Setter
+public class SummaryCacheConfig {
+
+    @Positive
+    private long maxSize = 10_000;
+
+    @NotNull
+    private Duration liveTtl = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration settledTtl = Duration.ofMinutes(10);
+
+    @NotNull
+    private Duration settleWindow = Duration.ofMinutes(1);
+
+    @Bean
+    public PaymentSummaryCache paymentSummaryCache(MeterRegistry meterRegistry) {
+        return new PaymentSummaryCache(maxSize, liveTtl, settledTtl, settleWindow, meterRegistry);
+    }
+}
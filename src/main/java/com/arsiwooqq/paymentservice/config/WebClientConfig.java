@@ -1,13 +1,81 @@
 package com.arsiwooqq.paymentservice.config;
 
+import io.netty.channel.ChannelOption;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * Outbound HTTP client shared by every {@link WebClient} built from the application builder.
+ * Connections are kept alive and reused from a bounded pool, idle ones are evicted in the background,
+ * and pool metrics are published per remote address under {@code reactor.netty.connection.provider}.
+ */
 @Configuration
+@ConfigurationProperties(prefix = "web-client")
+@Validated
+@Getter
+@Setter
 public class WebClientConfig {
+
+    @Positive
+    private int maxConnections = 100;
+
+    @Positive
+    private int pendingAcquireMaxCount = 1000;
+
+    @NotNull
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    @NotNull
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    @NotNull
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    private boolean compress = true;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider webClientConnectionProvider() {
+        return ConnectionProvider.builder("payment-service-web-client")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient.Builder webClient() {
-        return WebClient.builder();
+    public WebClient.Builder webClient(ConnectionProvider webClientConnectionProvider) {
+        var httpClient = HttpClient.create(webClientConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .compress(compress);
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
     }
 }
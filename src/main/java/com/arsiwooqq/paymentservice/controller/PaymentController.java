@@ -1,17 +1,29 @@
 package com.arsiwooqq.paymentservice.controller;
 
 import com.arsiwooqq.paymentservice.dto.ApiResponse;
+import com.arsiwooqq.paymentservice.dto.CursorPage;
 import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.enums.CountStrategy;
+import com.arsiwooqq.paymentservice.enums.ExportFormat;
+import com.arsiwooqq.paymentservice.exception.InvalidCountStrategyException;
+import com.arsiwooqq.paymentservice.exception.InvalidExportFormatException;
+import com.arsiwooqq.paymentservice.service.PaymentExportService;
 import com.arsiwooqq.paymentservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
@@ -22,21 +34,86 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentExportService paymentExportService;
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<Page<PaymentResponse>>> search(
+    public ResponseEntity<ApiResponse<Slice<PaymentResponse>>> search(
             Pageable pageable,
             @RequestParam(required = false) String orderId,
             @RequestParam(required = false) String userId,
-            @RequestParam(required = false) List<String> statuses
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(defaultValue = "exact") String count
     ) {
+        var countStrategy = CountStrategy.fromString(count);
+        if (countStrategy == null) {
+            throw new InvalidCountStrategyException(count);
+        }
         return ResponseEntity.ok(ApiResponse.success(
                 "Payments found",
-                paymentService.search(pageable, orderId, userId, statuses))
+                paymentService.search(pageable, orderId, userId, statuses, countStrategy))
         );
     }
 
+    @GetMapping("/search/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> searchByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String orderId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) List<String> statuses,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Payments found",
+                paymentService.searchByCursor(cursor, size, orderId, userId, statuses, includeTotal))
+        );
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String orderId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) List<String> statuses
+    ) {
+        var exportFormat = ExportFormat.fromString(format);
+        if (exportFormat == null) {
+            throw new InvalidExportFormatException(format);
+        }
+        var disposition = ContentDisposition.attachment()
+                .filename("payments." + exportFormat.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(out -> paymentExportService.export(exportFormat, orderId, userId, statuses, out));
+    }
+
+    @GetMapping("/orders/{orderId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<PaymentResponse>> getByOrderId(@PathVariable String orderId,
+                                                                     Authentication authentication) {
+        var isAdmin = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ROLE_ADMIN"::equals);
+        return ResponseEntity.ok(ApiResponse.success(
+                "Payment found",
+                paymentService.getByOrderId(orderId, isAdmin ? null : authentication.getName())
+        ));
+    }
+
+    @GetMapping("/users/{userId}/recent")
+    @PreAuthorize("hasRole('ADMIN') or #userId == authentication.name")
+    public ResponseEntity<ApiResponse<List<PaymentResponse>>> getRecent(@PathVariable String userId) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Recent payments found",
+                paymentService.getRecent(userId)
+        ));
+    }
+
     @GetMapping("/summary")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Long>> getTotalAmountOfPaidInPeriod(
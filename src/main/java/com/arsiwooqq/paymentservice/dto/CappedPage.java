@@ -0,0 +1,24 @@
+package com.arsiwooqq.paymentservice.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page whose total may have been cut off by a capped count. When {@code totalCapped} is set,
+ * {@code totalElements} is a lower bound and more payments may match.
+ */
+public class CappedPage<T> extends PageImpl<T> {
+
+    private final boolean totalCapped;
+
+    public CappedPage(List<T> content, Pageable pageable, long total, boolean totalCapped) {
+        super(content, pageable, total);
+        this.totalCapped = totalCapped;
+    }
+
+    public boolean isTotalCapped() {
+        return totalCapped;
+    }
+}
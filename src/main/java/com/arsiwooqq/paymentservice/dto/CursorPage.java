@@ -0,0 +1,14 @@
+package com.arsiwooqq.paymentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        Long totalElements
+) {
+}
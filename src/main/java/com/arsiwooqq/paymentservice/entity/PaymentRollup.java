@@ -0,0 +1,33 @@
+package com.arsiwooqq.paymentservice.entity;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.enums.RollupGranularity;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Sum and count of payments with one status created within a minute, hour or day bucket.
+ */
+@Document(collection = "payment_rollups")
+@Builder
+@Getter
+@Setter
+public class PaymentRollup {
+    @Id
+    private String id;
+
+    private RollupGranularity granularity;
+
+    private PaymentStatus status;
+
+    private Instant bucketStart;
+
+    private Long amount;
+
+    private Long count;
+}
@@ -0,0 +1,33 @@
+package com.arsiwooqq.paymentservice.enums;
+
+/**
+ * How {@code /search} computes the total number of matching payments.
+ */
+public enum CountStrategy {
+    /**
+     * Counts every matching document.
+     */
+    EXACT,
+    /**
+     * Counts up to {@code payment.search.count-cap} documents, or far enough to cover the requested page.
+     * When the count stops there, the page reports {@code totalCapped: true} and its total is a lower bound.
+     */
+    CAPPED,
+    /**
+     * Uses the collection metadata when no filter is given, otherwise behaves like {@link #CAPPED}.
+     */
+    ESTIMATED,
+    /**
+     * Skips counting and only probes whether a next page exists.
+     */
+    NONE;
+
+    public static CountStrategy fromString(String strategy) {
+        for (CountStrategy value : CountStrategy.values()) {
+            if (value.name().equalsIgnoreCase(strategy)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.arsiwooqq.paymentservice.enums;
+
+public enum EventFormat {
+    JSON,
+    BINARY
+}
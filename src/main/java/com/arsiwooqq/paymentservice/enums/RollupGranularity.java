@@ -0,0 +1,32 @@
+package com.arsiwooqq.paymentservice.enums;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant floor(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    /**
+     * Returns the start of the bucket following the one containing {@code instant}.
+     */
+    public Instant next(Instant instant) {
+        return floor(instant).plus(1, unit);
+    }
+
+    public Instant ceil(Instant instant) {
+        var floor = floor(instant);
+        return floor.equals(instant) ? floor : floor.plus(1, unit);
+    }
+}
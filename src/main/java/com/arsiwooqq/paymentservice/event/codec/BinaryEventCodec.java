@@ -0,0 +1,264 @@
+package com.arsiwooqq.paymentservice.event.codec;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Schema-versioned binary encoding of the Kafka events.
+ * <p>
+ * Every payload starts with a three byte header: {@link #MAGIC}, the schema id and the schema version.
+ * The magic byte can never start a JSON document, so binary and JSON payloads can share a topic while
+ * producers migrate. Fields follow in declaration order:
+ * <ul>
+ *     <li>string: {@code 0} for null, {@code 1} + 16 bytes for a canonical UUID,
+ *     {@code 2} + varint length + UTF-8 bytes otherwise</li>
+ *     <li>long: {@code 0} for null, {@code 1} + zigzag varint otherwise</li>
+ *     <li>status: one byte, {@code 0} for null</li>
+ * </ul>
+ * New fields are appended under a new version; readers keep decoding every version they know.
+ */
+public final class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+
+    static final byte ORDER_CREATED = 1;
+    static final byte PAYMENT_CREATED = 2;
+    static final byte VERSION_1 = 1;
+
+    private static final byte NULL = 0;
+    private static final byte UUID_STRING = 1;
+    private static final byte UTF8_STRING = 2;
+    private static final byte PRESENT = 1;
+
+    private BinaryEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        if (event instanceof OrderCreatedEvent orderCreated) {
+            return new Output(64)
+                    .header(ORDER_CREATED)
+                    .string(orderCreated.orderId())
+                    .string(orderCreated.userId())
+                    .nullableLong(orderCreated.paymentAmount())
+                    .toByteArray();
+        }
+        if (event instanceof PaymentCreatedEvent paymentCreated) {
+            return new Output(32)
+                    .header(PAYMENT_CREATED)
+                    .string(paymentCreated.orderId())
+                    .status(paymentCreated.status())
+                    .toByteArray();
+        }
+        throw new SerializationException("No binary schema for " + (event == null ? null : event.getClass()));
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new SerializationException("Payload is not a binary event");
+        }
+        var input = new Input(data, 3);
+        var schema = data[1];
+        var version = data[2];
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported version " + version + " of schema " + schema);
+        }
+        return switch (schema) {
+            case ORDER_CREATED -> new OrderCreatedEvent(input.string(), input.string(), input.nullableLong());
+            case PAYMENT_CREATED -> new PaymentCreatedEvent(input.string(), input.status());
+            default -> throw new SerializationException("Unknown schema " + schema);
+        };
+    }
+
+    private static byte statusCode(PaymentStatus status) {
+        return switch (status) {
+            case PAID -> 1;
+            case FAILED -> 2;
+        };
+    }
+
+    private static PaymentStatus statusOf(byte code) {
+        return switch (code) {
+            case 1 -> PaymentStatus.PAID;
+            case 2 -> PaymentStatus.FAILED;
+            default -> throw new SerializationException("Unknown payment status code " + code);
+        };
+    }
+
+    /**
+     * Returns the UUID only if {@code value} is its canonical lower-case form, so decoding restores the exact string.
+     */
+    private static UUID canonicalUuid(String value) {
+        if (value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-'
+                || value.charAt(18) != '-' || value.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            var uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int position;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        Output header(byte schema) {
+            ensure(3);
+            buffer[position++] = MAGIC;
+            buffer[position++] = schema;
+            buffer[position++] = VERSION_1;
+            return this;
+        }
+
+        Output string(String value) {
+            if (value == null) {
+                return writeByte(NULL);
+            }
+            var uuid = canonicalUuid(value);
+            if (uuid != null) {
+                writeByte(UUID_STRING);
+                writeLong(uuid.getMostSignificantBits());
+                return writeLong(uuid.getLeastSignificantBits());
+            }
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeByte(UTF8_STRING);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+            return this;
+        }
+
+        Output nullableLong(Long value) {
+            if (value == null) {
+                return writeByte(NULL);
+            }
+            writeByte(PRESENT);
+            return varint((value << 1) ^ (value >> 63));
+        }
+
+        Output status(PaymentStatus status) {
+            return writeByte(status == null ? NULL : statusCode(status));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private Output writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+            return this;
+        }
+
+        private Output writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+            return this;
+        }
+
+        private Output varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+            return this;
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] data;
+        private int position;
+
+        Input(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        String string() {
+            return switch (readByte()) {
+                case NULL -> null;
+                case UUID_STRING -> new UUID(readLong(), readLong()).toString();
+                case UTF8_STRING -> {
+                    var length = (int) varint();
+                    require(length);
+                    var value = new String(data, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                    yield value;
+                }
+                default -> throw new SerializationException("Unknown string encoding at offset " + (position - 1));
+            };
+        }
+
+        Long nullableLong() {
+            if (readByte() == NULL) {
+                return null;
+            }
+            var zigzag = varint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        PaymentStatus status() {
+            var code = readByte();
+            return code == NULL ? null : statusOf(code);
+        }
+
+        private byte readByte() {
+            require(1);
+            return data[position++];
+        }
+
+        private long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                var b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint");
+        }
+
+        private void require(int bytes) {
+            if (bytes < 0 || position + bytes > data.length) {
+                throw new SerializationException("Truncated binary event");
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.arsiwooqq.paymentservice.event.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes events with {@link BinaryEventCodec}. The schema travels in the payload, so no type headers are added.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : BinaryEventCodec.encode(data);
+    }
+}
@@ -0,0 +1,39 @@
+package com.arsiwooqq.paymentservice.event.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads binary events written by {@link BinaryEventSerializer} and falls back to {@link JsonDeserializer}
+ * for everything else, so producers can switch formats without a coordinated release.
+ * The JSON delegate receives the full consumer configuration, including trusted packages and type mappings.
+ */
+public class BinaryOrJsonEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return BinaryEventCodec.isBinary(data) ? BinaryEventCodec.decode(data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return BinaryEventCodec.isBinary(data)
+                ? BinaryEventCodec.decode(data)
+                : jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,163 @@
+package com.arsiwooqq.paymentservice.event.outbox;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import com.arsiwooqq.paymentservice.event.publisher.PaymentEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains payments whose PaymentCreatedEvent has not been published yet.
+ * A payment is written together with its {@code outboxPending} flag in a single document write,
+ * so an event is never sent for a payment that was not saved. Delivery is at-least-once:
+ * the flag is cleared only after Kafka acknowledged the send.
+ * <p>
+ * Every instance runs the relay, so pending payments are claimed before they are sent: a claim stamps the
+ * instance id and a lease expiry, and only payments without a live claim can be claimed. A payment whose send
+ * failed is released right away, and one held by an instance that died is picked up again once its lease ends.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutboxRelay {
+
+    static final String PENDING_FIELD = "outboxPending";
+    static final String CLAIMED_BY_FIELD = "outboxClaimedBy";
+    static final String CLAIMED_UNTIL_FIELD = "outboxClaimedUntil";
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${payment.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${payment.outbox.send-timeout:30s}")
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long a claim keeps other instances away. Must exceed {@code send-timeout}.
+     */
+    @Value("${payment.outbox.lease:1m}")
+    private Duration lease = Duration.ofMinutes(1);
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval:200ms}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    int relayBatch() {
+        var pending = claim();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        log.debug("Relaying {} pending payment events", pending.size());
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = pending.stream()
+                .map(payment -> paymentEventPublisher.publishPaymentCreated(
+                        new PaymentCreatedEvent(payment.getOrderId(), payment.getStatus())))
+                .toList();
+
+        List<UUID> published = new ArrayList<>(pending.size());
+        List<UUID> unpublished = new ArrayList<>();
+        var deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < sends.size(); i++) {
+            (awaitSend(sends.get(i), deadline) ? published : unpublished).add(pending.get(i).getId());
+        }
+
+        if (!published.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    claimedByThisInstance(published),
+                    new Update().unset(PENDING_FIELD).unset(CLAIMED_BY_FIELD).unset(CLAIMED_UNTIL_FIELD),
+                    Payment.class
+            );
+        }
+        if (!unpublished.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    claimedByThisInstance(unpublished),
+                    new Update().unset(CLAIMED_BY_FIELD).unset(CLAIMED_UNTIL_FIELD),
+                    Payment.class
+            );
+        }
+        log.debug("Relayed {} of {} pending payment events", published.size(), pending.size());
+        return published.size() == pending.size() ? pending.size() : 0;
+    }
+
+    /**
+     * Claims up to {@code batchSize} oldest pending payments that no instance holds a live claim on,
+     * and returns those this instance won. Candidates taken by another instance in between are skipped
+     * by the guarded update.
+     */
+    private List<Payment> claim() {
+        var now = Instant.now();
+        var candidatesQuery = Query.query(claimable(now))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                .limit(batchSize);
+        candidatesQuery.fields().include("_id");
+        var candidates = mongoTemplate.find(candidatesQuery, Payment.class).stream().map(Payment::getId).toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        var claimedUntil = now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(Criteria.where("_id").in(candidates), claimable(now))),
+                new Update().set(CLAIMED_BY_FIELD, instanceId).set(CLAIMED_UNTIL_FIELD, claimedUntil),
+                Payment.class
+        );
+
+        var claimedQuery = Query.query(Criteria.where("_id").in(candidates)
+                        .and(CLAIMED_BY_FIELD).is(instanceId)
+                        .and(CLAIMED_UNTIL_FIELD).is(claimedUntil))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+        claimedQuery.fields().include("orderId", "status");
+        return mongoTemplate.find(claimedQuery, Payment.class);
+    }
+
+    private static Criteria claimable(Instant now) {
+        return Criteria.where(PENDING_FIELD).is(true).orOperator(
+                Criteria.where(CLAIMED_UNTIL_FIELD).exists(false),
+                Criteria.where(CLAIMED_UNTIL_FIELD).lt(now)
+        );
+    }
+
+    private Query claimedByThisInstance(List<UUID> ids) {
+        return Query.query(Criteria.where("_id").in(ids).and(CLAIMED_BY_FIELD).is(instanceId));
+    }
+
+    private boolean awaitSend(CompletableFuture<SendResult<String, Object>> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Payment event was not acknowledged, keeping it in outbox: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.arsiwooqq.paymentservice.event.publisher;
 
 import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface PaymentEventPublisher {
-    void publishPaymentCreated(PaymentCreatedEvent event);
+    CompletableFuture<SendResult<String, Object>> publishPaymentCreated(PaymentCreatedEvent event);
 }
@@ -2,12 +2,17 @@ package com.arsiwooqq.paymentservice.event.publisher.impl;
 
 import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
 import com.arsiwooqq.paymentservice.event.publisher.PaymentEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -16,13 +21,16 @@ public class KafkaPaymentEventPublisher implements PaymentEventPublisher {
     @Value("${kafka.producer.topics.payment-created.name}")
     private String topicName;
 
-    private final KafkaTemplate<String, PaymentCreatedEvent> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Override
-    public void publishPaymentCreated(PaymentCreatedEvent event) {
+    public CompletableFuture<SendResult<String, Object>> publishPaymentCreated(PaymentCreatedEvent event) {
+        var sample = Timer.start(meterRegistry);
         var future = kafkaTemplate.send(topicName, event.orderId(), event);
 
-        future.whenComplete((result, ex) -> {
+        return future.whenComplete((result, ex) -> {
+            sample.stop(meterRegistry.timer("payment.events.publish", "outcome", ex != null ? "failure" : "success"));
             if (ex != null) {
                 log.error("Error sending message to Kafka: {}", ex.getMessage());
             } else {
@@ -68,6 +68,38 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Parameter is missing: " + e.getParameterName()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidCursorException e) {
+        log.debug("Invalid cursor: {}", e.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error("Invalid cursor"));
+    }
+
+    @ExceptionHandler(InvalidExportFormatException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidExportFormat(InvalidExportFormatException e) {
+        log.debug("Invalid export format: {}", e.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCountStrategyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCountStrategy(InvalidCountStrategyException e) {
+        log.debug("Invalid count strategy: {}", e.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(PaymentNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePaymentNotFound(PaymentNotFoundException e) {
+        log.debug("Payment not found: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneralException(Exception e) {
         log.error("Exception occurred: {}. Message: {}", e.getClass(), e.getMessage());
@@ -0,0 +1,7 @@
+package com.arsiwooqq.paymentservice.exception;
+
+public class InvalidCountStrategyException extends RuntimeException {
+    public InvalidCountStrategyException(String strategy) {
+        super("Unsupported count strategy: " + strategy);
+    }
+}
@@ -0,0 +1,13 @@
+package com.arsiwooqq.paymentservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PaymentBatchException extends RuntimeException {
+    private final int index;
+
+    public PaymentBatchException(int index, Throwable cause) {
+        super("Failed to create payment at batch index " + index, cause);
+        this.index = index;
+    }
+}
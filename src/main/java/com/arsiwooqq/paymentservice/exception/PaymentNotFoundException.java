@@ -0,0 +1,7 @@
+package com.arsiwooqq.paymentservice.exception;
+
+public class PaymentNotFoundException extends RuntimeException {
+    public PaymentNotFoundException(String orderId) {
+        super("Payment not found for order: " + orderId);
+    }
+}
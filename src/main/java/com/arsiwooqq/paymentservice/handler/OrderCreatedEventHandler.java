@@ -1,22 +1,44 @@
 package com.arsiwooqq.paymentservice.handler;
 
 import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.exception.PaymentBatchException;
 import com.arsiwooqq.paymentservice.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderCreatedEventHandler {
 
     private final PaymentService paymentService;
+    private final MeterRegistry meterRegistry;
 
     @KafkaListener(topics = "ORDER_CREATED")
-    public void handleOrderCreatedEvent(OrderCreatedEvent event) {
-        log.debug("Received OrderCreatedEvent: {}", event);
-        paymentService.create(event);
+    public void handleOrderCreatedEvents(List<OrderCreatedEvent> events) {
+        log.debug("Received {} OrderCreatedEvents", events.size());
+        meterRegistry.counter("payment.orders.received").increment(events.size());
+        var sample = Timer.start(meterRegistry);
+        var outcome = "success";
+        try {
+            paymentService.createAll(events);
+        } catch (PaymentBatchException e) {
+            outcome = "failure";
+            log.debug("Payment batch failed at index {}: {}", e.getIndex(), e.getMessage());
+            // Records before the index are committed, the failed one goes through retries/DLT
+            throw new BatchListenerFailedException(e.getMessage(), e.getCause(), e.getIndex());
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("payment.orders.persist", "outcome", outcome));
+        }
     }
 }
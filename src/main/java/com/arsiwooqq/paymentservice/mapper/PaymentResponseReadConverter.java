@@ -0,0 +1,36 @@
+package com.arsiwooqq.paymentservice.mapper;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Reads a stored payment straight into a {@link PaymentResponse}, skipping the {@code Payment} entity
+ * and the reflective property population of the mapping converter.
+ * Only the fields listed in {@link #FIELDS} are read, so queries can project to them.
+ */
+@ReadingConverter
+public class PaymentResponseReadConverter implements Converter<Document, PaymentResponse> {
+
+    public static final String[] FIELDS = {"_id", "orderId", "userId", "status", "timestamp", "paymentAmount"};
+
+    @Override
+    public PaymentResponse convert(Document source) {
+        var status = source.getString("status");
+        var timestamp = source.get("timestamp", Date.class);
+        var paymentAmount = source.get("paymentAmount", Number.class);
+        return new PaymentResponse(
+                source.get("_id", UUID.class),
+                source.getString("orderId"),
+                source.getString("userId"),
+                status == null ? null : PaymentStatus.valueOf(status),
+                timestamp == null ? null : timestamp.toInstant(),
+                paymentAmount == null ? null : paymentAmount.longValue()
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.arsiwooqq.paymentservice.repository;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.mapper.PaymentResponseReadConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class PaymentQueries {
+
+    private PaymentQueries() {
+    }
+
+    public static Query filter(String orderId, String userId, List<String> statuses) {
+        Query query = new Query();
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (orderId != null) {
+            criteria.add(Criteria.where("orderId").is(orderId));
+        }
+        if (userId != null) {
+            criteria.add(Criteria.where("userId").is(userId));
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            var enumStatuses = statuses.stream()
+                    .map(PaymentStatus::fromString)
+                    .toList();
+            criteria.add(Criteria.where("status").in(enumStatuses));
+        }
+        criteria.forEach(query::addCriteria);
+        return query;
+    }
+
+    /**
+     * Restricts the query to the fields read by {@link PaymentResponseReadConverter}.
+     */
+    public static Query responseFields(Query query) {
+        query.fields().include(PaymentResponseReadConverter.FIELDS);
+        return query;
+    }
+}
@@ -1,8 +1,13 @@
 package com.arsiwooqq.paymentservice.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.arsiwooqq.paymentservice.client.AuthServiceClient;
 import com.arsiwooqq.paymentservice.dto.ValidateTokenRequest;
+import com.arsiwooqq.paymentservice.security.TokenVerificationCache.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,13 +22,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtFilter extends OncePerRequestFilter {
     private final AuthServiceClient authServiceClient;
+    private final TokenVerificationCache tokenVerificationCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public void doFilterInternal(@NonNull HttpServletRequest request,
@@ -33,9 +42,12 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
         log.debug("Token fetched from request");
         if (token != null) {
-            if (validateToken(token)) {
+            var sample = Timer.start(meterRegistry);
+            var verified = verifyToken(token);
+            sample.stop(meterRegistry.timer("payment.auth.validation", "result", verified.isPresent() ? "valid" : "invalid"));
+            if (verified.isPresent()) {
                 log.debug("Token is valid. Setting authentication");
-                setAuthentication(token);
+                setAuthentication(verified.get());
                 request.setAttribute("jwt", token);
             } else {
                 log.debug("Token is invalid");
@@ -54,6 +66,37 @@ public class JwtFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private Optional<VerifiedToken> verifyToken(String token) {
+        var cached = tokenVerificationCache.get(token);
+        if (cached.isPresent()) {
+            meterRegistry.counter("payment.auth.cache.hits").increment();
+            log.debug("Token found in verification cache");
+            return cached;
+        }
+        DecodedJWT decoded;
+        try {
+            decoded = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            log.debug("Malformed token: {}", e.getMessage());
+            return Optional.empty();
+        }
+        var expiresAt = decoded.getExpiresAtAsInstant();
+        if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+            log.debug("Token expired at {}", expiresAt);
+            return Optional.empty();
+        }
+        if (!validateToken(token)) {
+            return Optional.empty();
+        }
+        var verified = new VerifiedToken(
+                decoded.getSubject(),
+                decoded.getClaim("role").asString(),
+                expiresAt != null ? expiresAt : Instant.MAX
+        );
+        tokenVerificationCache.put(token, verified);
+        return Optional.of(verified);
+    }
+
     private boolean validateToken(String token) {
         try {
             var response = authServiceClient.validate(new ValidateTokenRequest(token));
@@ -65,25 +108,14 @@ public class JwtFilter extends OncePerRequestFilter {
         return false;
     }
 
-    private String getRole(String token) {
-        return JWT.decode(token).getClaim("role").asString();
-    }
-
-    private String getId(String token) {
-        return JWT.decode(token).getSubject();
-    }
-
-    private void setAuthentication(String token) {
-        var id = getId(token);
-        var role = getRole(token);
-
+    private void setAuthentication(VerifiedToken token) {
         SecurityContextHolder.getContext().setAuthentication(
                 new UsernamePasswordAuthenticationToken(
-                        id,
+                        token.id(),
                         null,
-                        List.of(new SimpleGrantedAuthority(role))
+                        List.of(new SimpleGrantedAuthority(token.role()))
                 )
         );
-        log.debug("Authenticated user with id {}. Role: {}", id, role);
+        log.debug("Authenticated user with id {}. Role: {}", token.id(), token.role());
     }
 }
@@ -0,0 +1,72 @@
+package com.arsiwooqq.paymentservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Remembers tokens the auth service has confirmed as valid, keyed by the SHA-256 of the token
+ * so raw credentials are not kept in memory. An entry lives until the token expires,
+ * but no longer than {@code maxTtl}, which bounds how late a revoked token is noticed.
+ */
+public class TokenVerificationCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public TokenVerificationCache(long maxSize, Duration maxTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        // Compared as Durations: a token without exp expires at Instant.MAX, which overflows nanos
+                        var untilExpiry = Duration.between(Instant.now(), token.expiresAt());
+                        if (untilExpiry.isNegative()) {
+                            return 0;
+                        }
+                        return (untilExpiry.compareTo(maxTtl) > 0 ? maxTtl : untilExpiry).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Optional<VerifiedToken> get(String token) {
+        return Optional.ofNullable(cache.getIfPresent(hash(token)));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(hash(token), verified);
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    public record VerifiedToken(String id, String role, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.arsiwooqq.paymentservice.service;
+
+import com.arsiwooqq.paymentservice.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface PaymentExportService {
+
+    /**
+     * Writes every payment matching the search filters to {@code out}, one row at a time.
+     *
+     * @return the number of exported payments
+     */
+    long export(ExportFormat format, String orderId, String userId, List<String> statuses,
+                OutputStream out) throws IOException;
+}
@@ -2,7 +2,10 @@ package com.arsiwooqq.paymentservice.service;
 
 import com.arsiwooqq.paymentservice.dto.PaymentRequest;
 import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import reactor.core.publisher.Mono;
 
 public interface PaymentHandlerService {
     PaymentStatus handlePayment(PaymentRequest paymentCompleted);
+
+    Mono<PaymentStatus> handlePaymentAsync(PaymentRequest paymentCompleted);
 }
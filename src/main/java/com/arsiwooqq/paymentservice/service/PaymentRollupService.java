@@ -0,0 +1,17 @@
+package com.arsiwooqq.paymentservice.service;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PaymentRollupService {
+
+    /**
+     * Adds payments this instance has just stored to their buckets. Must be called at most once per payment.
+     */
+    void record(List<Payment> payments);
+
+    long sumOfPayments(Instant from, Instant to, PaymentStatus status);
+}
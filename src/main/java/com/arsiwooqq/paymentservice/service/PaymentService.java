@@ -1,9 +1,12 @@
 package com.arsiwooqq.paymentservice.service;
 
+import com.arsiwooqq.paymentservice.dto.CursorPage;
 import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.enums.CountStrategy;
 import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.Instant;
 import java.util.List;
@@ -12,7 +15,40 @@ public interface PaymentService {
 
     Page<PaymentResponse> search(Pageable pageable, String orderId, String userId, List<String> statuses);
 
+    /**
+     * Same as {@link #search(Pageable, String, String, List)} with the total computed by {@code countStrategy}.
+     * Returns a {@link Page} for every strategy except {@link CountStrategy#NONE}.
+     */
+    Slice<PaymentResponse> search(Pageable pageable, String orderId, String userId, List<String> statuses,
+                                  CountStrategy countStrategy);
+
+    CursorPage<PaymentResponse> searchByCursor(String cursor, int size, String orderId, String userId,
+                                               List<String> statuses, boolean includeTotal);
+
+    /**
+     * Returns the latest payments of the user, newest first, from the recent payments cache when it holds them.
+     */
+    List<PaymentResponse> getRecent(String userId);
+
+    /**
+     * Returns the payment of the order, from the order payment cache when it holds it. When {@code userId} is set,
+     * a payment of another user is reported as missing, so callers cannot tell foreign orders from unknown ones.
+     *
+     * @param userId owner the payment must belong to, or {@code null} to return it regardless of owner
+     * @throws com.arsiwooqq.paymentservice.exception.PaymentNotFoundException if the order has no payment yet
+     *                                                                         or it belongs to another user
+     */
+    PaymentResponse getByOrderId(String orderId, String userId);
+
     Long getTotalAmountOfPaidInPeriod(Instant from, Instant to);
 
     void create(OrderCreatedEvent event);
+
+    /**
+     * Decides the statuses of the events concurrently and inserts their payments on the calling thread
+     * once every decision is in. PaymentCreatedEvents are never sent from here: each payment is stored with
+     * its outbox flag and published by {@link com.arsiwooqq.paymentservice.event.outbox.PaymentOutboxRelay}
+     * only after that insert succeeded.
+     */
+    void createAll(List<OrderCreatedEvent> events);
 }
@@ -0,0 +1,8 @@
+package com.arsiwooqq.paymentservice.service;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import reactor.core.publisher.Mono;
+
+public interface PaymentStatusSource {
+    Mono<PaymentStatus> nextStatus();
+}
@@ -0,0 +1,43 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last payment of a page in {@code (timestamp desc, _id desc)} order.
+ * Clients receive it as an opaque URL-safe token.
+ */
+record PaymentCursor(Instant timestamp, UUID id) {
+
+    private static final char SEPARATOR = ':';
+
+    static PaymentCursor of(Payment payment) {
+        return new PaymentCursor(payment.getTimestamp(), payment.getId());
+    }
+
+    static PaymentCursor decode(String token) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new PaymentCursor(
+                    Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator))),
+                    UUID.fromString(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+
+    String encode() {
+        var value = timestamp.toEpochMilli() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,173 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.ExportFormat;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import com.arsiwooqq.paymentservice.repository.PaymentQueries;
+import com.arsiwooqq.paymentservice.service.PaymentExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams payments from a Mongo cursor straight into the response. Only one cursor batch is held
+ * in memory at a time and the next batch is requested only after the previous rows were written,
+ * so a slow client throttles the export instead of making it buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentExportServiceImpl implements PaymentExportService {
+
+    private static final String CSV_HEADER = "id,orderId,userId,status,timestamp,paymentAmount";
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentMapper paymentMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.export.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Override
+    public long export(ExportFormat format, String orderId, String userId, List<String> statuses,
+                       OutputStream out) throws IOException {
+        log.debug("Exporting payments as {}: orderId={}, userId={}, statuses={}", format, orderId, userId, statuses);
+        var query = PaymentQueries.filter(orderId, userId, statuses).cursorBatchSize(batchSize);
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        var rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        var sample = Timer.start(meterRegistry);
+        var outcome = "success";
+        long exported = 0;
+        try (var payments = mongoTemplate.stream(query, Payment.class)) {
+            var iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.write(paymentMapper.toResponse(iterator.next()));
+                exported++;
+            }
+            rowWriter.finish();
+        } catch (IOException | RuntimeException e) {
+            outcome = "failure";
+            log.debug("Payment export aborted after {} rows: {}", exported, e.getMessage());
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("payment.export", "format", format.getExtension(), "outcome", outcome));
+            meterRegistry.counter("payment.export.rows", "format", format.getExtension()).increment(exported);
+        }
+        log.debug("Exported {} payments", exported);
+        return exported;
+    }
+
+    private interface RowWriter {
+        void write(PaymentResponse payment) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private final ObjectWriter objectWriter;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            this.objectWriter = objectMapper.writerFor(PaymentResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(PaymentResponse payment) throws IOException {
+            objectWriter.writeValue(generator, payment);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(PaymentResponse payment) throws IOException {
+            writer.write(Objects.toString(payment.id(), ""));
+            writer.write(',');
+            writeField(payment.orderId());
+            writer.write(',');
+            writeField(payment.userId());
+            writer.write(',');
+            writer.write(Objects.toString(payment.status(), ""));
+            writer.write(',');
+            writer.write(Objects.toString(payment.timestamp(), ""));
+            writer.write(',');
+            writer.write(Objects.toString(payment.paymentAmount(), ""));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * Writes a free-form field. Values a spreadsheet would evaluate as a formula get a leading
+         * apostrophe and are quoted, so they are displayed as text instead.
+         */
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (isFormula(value)) {
+                writer.write("\"'");
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean isFormula(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            var first = value.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+    }
+}
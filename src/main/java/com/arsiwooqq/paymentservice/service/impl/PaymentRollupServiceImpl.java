@@ -0,0 +1,304 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.cache.PaymentSummaryCache;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.entity.PaymentRollup;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.enums.RollupGranularity;
+import com.arsiwooqq.paymentservice.repository.PaymentRepository;
+import com.arsiwooqq.paymentservice.service.PaymentRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps per-minute, per-hour and per-day totals of payments and answers range sums from them.
+ * A range is split into whole days, then whole hours and minutes at its ends,
+ * and only the sub-minute edges are summed over raw payments.
+ * Payments are inserted with a {@code rollupPending} flag that is cleared once they are added to their buckets,
+ * so a failed or interrupted rollup write is settled by {@link #reconcile()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRollupServiceImpl implements PaymentRollupService {
+
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    static final String PENDING_FIELD = "rollupPending";
+
+    private static final String PAYMENTS = "payments";
+
+    private final MongoTemplate mongoTemplate;
+    private final PaymentRepository paymentRepository;
+    private final PaymentSummaryCache paymentSummaryCache;
+
+    @Value("${payment.rollup.reconcile-batch-size:500}")
+    private int reconcileBatchSize = 500;
+
+    @Value("${payment.rollup.reconcile-grace:1m}")
+    private Duration reconcileGrace = Duration.ofMinutes(1);
+
+    /**
+     * Adds newly stored payments to their buckets with one increment per bucket, then clears their pending flag.
+     * Each payment must be recorded once: a payment whose increment may not have landed stays pending
+     * and is settled by {@link #reconcile()} instead of being recorded again.
+     */
+    @Override
+    public void record(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        Map<String, PaymentRollup> increments = new LinkedHashMap<>();
+        for (Payment payment : payments) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                addIncrement(increments, granularity, payment.getStatus(), payment.getTimestamp(),
+                        payment.getPaymentAmount(), 1);
+            }
+        }
+        increment(increments.values());
+        clearPending(payments);
+        log.debug("Recorded {} payments into {} rollup buckets", payments.size(), increments.size());
+    }
+
+    /**
+     * Settles payments left pending by a failed or interrupted {@link #record(List)}, whose increments
+     * may or may not have landed. Their minute buckets are recomputed from {@code payments} and replaced,
+     * and the difference from the replaced values is added to the hour and day buckets above them.
+     * Only minutes that ended more than {@code reconcileGrace} ago are settled, so no insert or increment
+     * still lands in them; the grace must therefore exceed the time from stamping a payment to recording it.
+     * Instances reconciling the same minute concurrently write the same totals, and all but the first
+     * see no difference to propagate. Cached summaries from the oldest settled payment onwards are dropped,
+     * since they may have been loaded while those payments were missing from the buckets.
+     */
+    @Scheduled(fixedDelayString = "${payment.rollup.reconcile-interval:1m}")
+    public void reconcile() {
+        var settledBefore = RollupGranularity.MINUTE.floor(Instant.now().minus(reconcileGrace));
+        var query = Query.query(Criteria.where(PENDING_FIELD).is(true).and("timestamp").lt(settledBefore))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                .limit(reconcileBatchSize);
+        query.fields().include("status", "timestamp");
+        var pending = mongoTemplate.find(query, Payment.class);
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.warn("Reconciling rollups of {} payments left pending", pending.size());
+        Map<String, PaymentRollup> minutes = new LinkedHashMap<>();
+        for (Payment payment : pending) {
+            addIncrement(minutes, RollupGranularity.MINUTE, payment.getStatus(), payment.getTimestamp(), 0L, 0);
+        }
+        var actual = sumMinutes(minutes.values());
+        Map<String, PaymentRollup> deltas = new LinkedHashMap<>();
+        var drifted = 0;
+        for (PaymentRollup minute : minutes.values()) {
+            var totals = actual.getOrDefault(minute.getId(), minute);
+            var previous = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(minute.getId())),
+                    new Update()
+                            .setOnInsert("granularity", minute.getGranularity())
+                            .setOnInsert("status", minute.getStatus())
+                            .setOnInsert("bucketStart", minute.getBucketStart())
+                            .set("amount", totals.getAmount())
+                            .set("count", totals.getCount()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(false),
+                    PaymentRollup.class
+            );
+            var amountDelta = totals.getAmount() - (previous != null ? previous.getAmount() : 0);
+            var countDelta = totals.getCount() - (previous != null ? previous.getCount() : 0);
+            if (amountDelta != 0 || countDelta != 0) {
+                drifted++;
+                addIncrement(deltas, RollupGranularity.HOUR, minute.getStatus(), minute.getBucketStart(),
+                        amountDelta, countDelta);
+                addIncrement(deltas, RollupGranularity.DAY, minute.getStatus(), minute.getBucketStart(),
+                        amountDelta, countDelta);
+            }
+        }
+        increment(deltas.values());
+        clearPending(pending);
+        paymentSummaryCache.invalidate(pending.get(0).getTimestamp(), settledBefore);
+        log.debug("Reconciled {} minute buckets, {} of them had drifted", minutes.size(), drifted);
+    }
+
+    private static void addIncrement(Map<String, PaymentRollup> increments, RollupGranularity granularity,
+                                     PaymentStatus status, Instant timestamp, long amount, long count) {
+        var bucketStart = granularity.floor(timestamp);
+        var increment = increments.computeIfAbsent(
+                rollupId(granularity, status, bucketStart),
+                id -> PaymentRollup.builder()
+                        .id(id)
+                        .granularity(granularity)
+                        .status(status)
+                        .bucketStart(bucketStart)
+                        .amount(0L)
+                        .count(0L)
+                        .build());
+        increment.setAmount(increment.getAmount() + amount);
+        increment.setCount(increment.getCount() + count);
+    }
+
+    private void increment(Collection<PaymentRollup> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class);
+        increments.forEach(increment -> bulk.upsert(
+                Query.query(Criteria.where("_id").is(increment.getId())),
+                new Update()
+                        .setOnInsert("granularity", increment.getGranularity())
+                        .setOnInsert("status", increment.getStatus())
+                        .setOnInsert("bucketStart", increment.getBucketStart())
+                        .inc("amount", increment.getAmount())
+                        .inc("count", increment.getCount())
+        ));
+        bulk.execute();
+    }
+
+    private void clearPending(List<Payment> payments) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(payments.stream().map(Payment::getId).toList())),
+                new Update().unset(PENDING_FIELD),
+                Payment.class
+        );
+    }
+
+    /**
+     * Sums stored payments over the given minute buckets, keyed by bucket id. Minutes without payments are absent.
+     */
+    private Map<String, PaymentRollup> sumMinutes(Collection<PaymentRollup> minutes) {
+        List<Document> ranges = new ArrayList<>();
+        for (PaymentRollup minute : minutes) {
+            ranges.add(new Document("status", minute.getStatus().name())
+                    .append("timestamp", new Document("$gte", Date.from(minute.getBucketStart()))
+                            .append("$lt", Date.from(RollupGranularity.MINUTE.next(minute.getBucketStart())))));
+        }
+        var group = new Document("_id", new Document("status", "$status")
+                .append("bucketStart", new Document("$dateTrunc", new Document("date", "$timestamp")
+                        .append("unit", "minute")
+                        .append("timezone", "UTC"))))
+                .append("amount", new Document("$sum", "$paymentAmount"))
+                .append("count", new Document("$sum", 1));
+        var aggregation = Aggregation.newAggregation(
+                stage("$match", new Document("$or", ranges)),
+                stage("$group", group)
+        );
+        Map<String, PaymentRollup> totals = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, PAYMENTS, Document.class)) {
+            var key = (Document) result.get("_id");
+            var status = PaymentStatus.valueOf(key.getString("status"));
+            var bucketStart = key.getDate("bucketStart").toInstant();
+            var id = rollupId(RollupGranularity.MINUTE, status, bucketStart);
+            totals.put(id, PaymentRollup.builder()
+                    .id(id)
+                    .granularity(RollupGranularity.MINUTE)
+                    .status(status)
+                    .bucketStart(bucketStart)
+                    .amount(((Number) result.get("amount")).longValue())
+                    .count(((Number) result.get("count")).longValue())
+                    .build());
+        }
+        return totals;
+    }
+
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
+
+    @Override
+    public long sumOfPayments(Instant from, Instant to, PaymentStatus status) {
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        // Payment timestamps are stored with millisecond precision, so [from, to] equals [from, to + 1ms)
+        var start = from;
+        var end = to.plusMillis(1);
+        var firstMinute = RollupGranularity.MINUTE.ceil(start);
+        var lastMinute = RollupGranularity.MINUTE.floor(end);
+        if (!firstMinute.isBefore(lastMinute)) {
+            return sumOfRaw(start, end, status);
+        }
+
+        List<Criteria> buckets = new ArrayList<>();
+        addBuckets(buckets, RollupGranularity.MINUTE, firstMinute, lastMinute);
+        long total = sumOfBuckets(buckets, status)
+                + sumOfRaw(start, firstMinute, status)
+                + sumOfRaw(lastMinute, end, status);
+        log.debug("Summed {} payments in period {} - {} from {} bucket ranges", status, from, to, buckets.size());
+        return total;
+    }
+
+    /**
+     * Covers {@code [start, end)} with buckets of the given granularity,
+     * delegating the aligned middle part to the next coarser granularity.
+     */
+    private void addBuckets(List<Criteria> buckets, RollupGranularity granularity, Instant start, Instant end) {
+        if (granularity != RollupGranularity.DAY) {
+            var coarser = RollupGranularity.values()[granularity.ordinal() + 1];
+            var coarseStart = coarser.ceil(start);
+            var coarseEnd = coarser.floor(end);
+            if (coarseStart.isBefore(coarseEnd)) {
+                addRange(buckets, granularity, start, coarseStart);
+                addBuckets(buckets, coarser, coarseStart, coarseEnd);
+                addRange(buckets, granularity, coarseEnd, end);
+                return;
+            }
+        }
+        addRange(buckets, granularity, start, end);
+    }
+
+    private void addRange(List<Criteria> buckets, RollupGranularity granularity, Instant start, Instant end) {
+        if (start.isBefore(end)) {
+            buckets.add(Criteria.where("granularity").is(granularity)
+                    .and("bucketStart").gte(start).lt(end));
+        }
+    }
+
+    private long sumOfBuckets(List<Criteria> buckets, PaymentStatus status) {
+        var aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().andOperator(
+                        Criteria.where("status").is(status),
+                        new Criteria().orOperator(buckets)
+                )),
+                Aggregation.group().sum("amount").as("total")
+        );
+        var result = mongoTemplate.aggregate(aggregation, PaymentRollup.class, Document.class).getUniqueMappedResult();
+        return result != null ? ((Number) result.get("total")).longValue() : 0;
+    }
+
+    private long sumOfRaw(Instant start, Instant end, PaymentStatus status) {
+        if (!start.isBefore(end)) {
+            return 0;
+        }
+        var total = paymentRepository.sumOfPayments(start, end.minusMillis(1), status);
+        return total != null ? total : 0;
+    }
+
+    static String rollupId(RollupGranularity granularity, PaymentStatus status, Instant bucketStart) {
+        return granularity + ":" + status + ":" + BUCKET_FORMAT.format(bucketStart);
+    }
+}
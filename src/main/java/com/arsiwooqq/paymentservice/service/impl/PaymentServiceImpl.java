@@ -1,70 +1,212 @@
 package com.arsiwooqq.paymentservice.service.impl;
 
+import com.arsiwooqq.paymentservice.cache.OrderPaymentCache;
+import com.arsiwooqq.paymentservice.cache.PaymentSummaryCache;
+import com.arsiwooqq.paymentservice.cache.RecentPaymentsCache;
+import com.arsiwooqq.paymentservice.dto.CappedPage;
+import com.arsiwooqq.paymentservice.dto.CursorPage;
 import com.arsiwooqq.paymentservice.dto.PaymentRequest;
 import com.arsiwooqq.paymentservice.dto.PaymentResponse;
 import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.CountStrategy;
 import com.arsiwooqq.paymentservice.enums.PaymentStatus;
 import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.exception.PaymentBatchException;
+import com.arsiwooqq.paymentservice.exception.PaymentNotFoundException;
 import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
-import com.arsiwooqq.paymentservice.repository.PaymentRepository;
+import com.arsiwooqq.paymentservice.repository.PaymentQueries;
 import com.arsiwooqq.paymentservice.service.PaymentHandlerService;
+import com.arsiwooqq.paymentservice.service.PaymentRollupService;
 import com.arsiwooqq.paymentservice.service.PaymentService;
+import com.arsiwooqq.paymentservice.util.RotatingBloomFilter;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
-    private final PaymentRepository paymentRepository;
+    private static final String PAYMENTS = "payments";
+
     private final PaymentMapper paymentMapper;
     private final MongoTemplate mongoTemplate;
     private final PaymentHandlerService paymentHandlerService;
+    private final RotatingBloomFilter recentOrderFilter;
+    private final PaymentRollupService paymentRollupService;
+    private final PaymentSummaryCache paymentSummaryCache;
+    private final RecentPaymentsCache recentPaymentsCache;
+    private final OrderPaymentCache orderPaymentCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.max-in-flight:256}")
+    private int maxInFlight = 256;
+
+    @Value("${payment.search.max-page-size:1000}")
+    private int maxPageSize = 1000;
+
+    @Value("${payment.search.count-cap:10000}")
+    private long countCap = 10_000;
 
     @Override
     public Page<PaymentResponse> search(Pageable pageable, String orderId, String userId, List<String> statuses) {
         log.debug("Searching payments with params: pageable={}, orderId={}, userId={}, statuses={}", pageable, orderId, userId, statuses);
-        Query query = new Query();
-        List<Criteria> criteria = new ArrayList<>();
+        Query query = PaymentQueries.filter(orderId, userId, statuses);
+        long totalFiltered = timed("search.count", () -> mongoTemplate.count(query, Payment.class));
+        return page(query, pageable, totalFiltered);
+    }
 
-        if (orderId != null) {
-            criteria.add(Criteria.where("orderId").is(orderId));
+    @Override
+    public Slice<PaymentResponse> search(Pageable pageable, String orderId, String userId, List<String> statuses,
+                                         CountStrategy countStrategy) {
+        if (countStrategy == CountStrategy.EXACT) {
+            return search(pageable, orderId, userId, statuses);
         }
-        if (userId != null) {
-            criteria.add(Criteria.where("userId").is(userId));
+        log.debug("Searching payments with params: pageable={}, orderId={}, userId={}, statuses={}, countStrategy={}",
+                pageable, orderId, userId, statuses, countStrategy);
+        Query query = PaymentQueries.filter(orderId, userId, statuses);
+        if (countStrategy == CountStrategy.NONE) {
+            return slice(query, pageable);
         }
-        if (statuses != null && !statuses.isEmpty()) {
-            var enumStatuses = statuses.stream()
-                    .map(PaymentStatus::fromString)
-                    .toList();
-            criteria.add(Criteria.where("status").in(enumStatuses));
+        if (countStrategy == CountStrategy.ESTIMATED && query.getQueryObject().isEmpty()) {
+            long estimated = timed("search.estimated-count", () -> mongoTemplate.estimatedCount(Payment.class));
+            return page(query, pageable, estimated);
         }
-        criteria.forEach(query::addCriteria);
-        long totalFiltered = mongoTemplate.count(query, Payment.class);
+        return cappedPage(query, pageable);
+    }
+
+    private Page<PaymentResponse> page(Query query, Pageable pageable, long totalFiltered) {
         query.with(pageable);
-        var payments = mongoTemplate.find(query, Payment.class).stream().map(paymentMapper::toResponse).toList();
+        var payments = findResponses(query);
         log.debug("Found {} payments", payments.size());
         return new PageImpl<>(payments, pageable, totalFiltered);
     }
 
+    /**
+     * Fetches one extra payment to tell whether a next page exists, without counting.
+     */
+    private Slice<PaymentResponse> slice(Query query, Pageable pageable) {
+        query.with(pageable);
+        if (pageable.isPaged()) {
+            query.limit(pageable.getPageSize() + 1);
+        }
+        var payments = findResponses(query);
+        var hasNext = pageable.isPaged() && payments.size() > pageable.getPageSize();
+        var page = hasNext ? payments.subList(0, pageable.getPageSize()) : payments;
+        log.debug("Found {} payments, has next page: {}", page.size(), hasNext);
+        return new SliceImpl<>(page, pageable, hasNext);
+    }
+
+    /**
+     * Projects the query to the response fields and reads them straight into responses,
+     * without materializing {@link Payment} entities.
+     */
+    private List<PaymentResponse> findResponses(Query query) {
+        PaymentQueries.responseFields(query);
+        return timed("search.find", () -> mongoTemplate.find(query, PaymentResponse.class, PAYMENTS));
+    }
+
+    /**
+     * Counts no further than the cap, but always past the requested page, so the page still knows whether
+     * a next one exists. The total is exact whenever fewer documents match than were counted,
+     * otherwise the page is flagged as capped and its total is a lower bound.
+     */
+    private Page<PaymentResponse> cappedPage(Query query, Pageable pageable) {
+        var limit = (int) Math.min(pageable.isPaged()
+                ? Math.max(countCap, pageable.getOffset() + pageable.getPageSize() + 1)
+                : countCap, Integer.MAX_VALUE);
+        var capped = Query.of(query).limit(limit);
+        long totalFiltered = timed("search.capped-count", () -> mongoTemplate.count(capped, Payment.class));
+        query.with(pageable);
+        var payments = findResponses(query);
+        log.debug("Found {} payments, total capped: {}", payments.size(), totalFiltered >= limit);
+        return new CappedPage<>(payments, pageable, totalFiltered, totalFiltered >= limit);
+    }
+
+    @Override
+    public CursorPage<PaymentResponse> searchByCursor(String cursor, int size, String orderId, String userId,
+                                                      List<String> statuses, boolean includeTotal) {
+        log.debug("Searching payments by cursor: cursor={}, size={}, orderId={}, userId={}, statuses={}",
+                cursor, size, orderId, userId, statuses);
+        var pageSize = Math.max(1, Math.min(size, maxPageSize));
+        Query query = PaymentQueries.filter(orderId, userId, statuses);
+        Long totalFiltered = includeTotal ? timed("cursor.count", () -> mongoTemplate.count(query, Payment.class)) : null;
+        if (cursor != null && !cursor.isBlank()) {
+            var position = PaymentCursor.decode(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(position.timestamp()),
+                    Criteria.where("timestamp").is(position.timestamp()).and("_id").lt(position.id())
+            ));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "timestamp", "_id")).limit(pageSize + 1);
+
+        var payments = timed("cursor.find", () -> mongoTemplate.find(query, Payment.class));
+        var hasNext = payments.size() > pageSize;
+        var page = hasNext ? payments.subList(0, pageSize) : payments;
+        var nextCursor = hasNext ? PaymentCursor.of(page.get(pageSize - 1)).encode() : null;
+        log.debug("Found {} payments, has next page: {}", page.size(), hasNext);
+        return new CursorPage<>(page.stream().map(paymentMapper::toResponse).toList(), pageSize, nextCursor, totalFiltered);
+    }
+
+    @Override
+    public List<PaymentResponse> getRecent(String userId) {
+        log.debug("Getting recent payments of user: {}", userId);
+        var result = recentPaymentsCache.get(userId, key -> {
+            var query = PaymentQueries.responseFields(Query.query(Criteria.where("userId").is(key)))
+                    .with(Sort.by(Sort.Direction.DESC, "timestamp", "_id"))
+                    .limit(recentPaymentsCache.getCapacity());
+            return timed("recent.find", () -> mongoTemplate.find(query, PaymentResponse.class, PAYMENTS));
+        });
+        log.debug("Found {} recent payments", result.size());
+        return result;
+    }
+
+    @Override
+    public PaymentResponse getByOrderId(String orderId, String userId) {
+        log.debug("Getting payment of order: {}", orderId);
+        var result = orderPaymentCache.get(orderId, key -> {
+            var query = PaymentQueries.responseFields(Query.query(Criteria.where("orderId").is(key)));
+            return timed("order.find", () -> mongoTemplate.findOne(query, PaymentResponse.class, PAYMENTS));
+        })
+                .filter(payment -> userId == null || userId.equals(payment.userId()))
+                .orElseThrow(() -> new PaymentNotFoundException(orderId));
+        log.debug("Found payment {} of order {}", result.id(), orderId);
+        return result;
+    }
+
     @Override
     public Long getTotalAmountOfPaidInPeriod(Instant from, Instant to) {
         log.debug("Calculating total amount of paid payments in period: from={} to={}", from, to);
-        var total = paymentRepository.sumOfPayments(from, to, PaymentStatus.PAID);
-        var result = total != null ? total : 0;
+        var result = paymentSummaryCache.get(from, to,
+                () -> timed("summary", () -> paymentRollupService.sumOfPayments(from, to, PaymentStatus.PAID)));
         log.debug("Total amount of paid payments in period: {}", result);
         return result;
     }
@@ -72,23 +214,171 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     public void create(OrderCreatedEvent event) {
         log.debug("Saving payment: {}", event);
-        var status = paymentHandlerService.handlePayment(
-                new PaymentRequest(
-                        event.orderId(),
-                        event.userId(),
-                        event.paymentAmount())
-        );
-        log.debug("Payment handled with status: {}", status);
-        var payment = Payment.builder()
-                .id(UUID.randomUUID())
+        try {
+            createAll(List.of(event));
+        } catch (PaymentBatchException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        log.debug("Payment saved successfully for order: {}", event.orderId());
+    }
+
+    @Override
+    public void createAll(List<OrderCreatedEvent> events) {
+        log.debug("Saving {} payments", events.size());
+        var indexes = newOrderIndexes(events);
+        var decisions = decideStatuses(indexes.stream().map(events::get).toList());
+        List<Payment> payments = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            var decision = decisions.get(i);
+            if (decision.error() != null) {
+                log.debug("Payment handling failed at index {}: {}", indexes.get(i), decision.error().getMessage());
+                insertAll(payments, indexes);
+                throw new PaymentBatchException(indexes.get(i), decision.error());
+            }
+            payments.add(toPayment(events.get(indexes.get(i)), decision.status()));
+        }
+        insertAll(payments, indexes);
+        log.debug("{} payments saved successfully", payments.size());
+    }
+
+    /**
+     * Returns the batch indexes of events whose order has no payment yet, keeping the first event per order.
+     * Orders the filter has never seen skip the lookup, the rest are checked against Mongo,
+     * so a false positive costs a query instead of a dropped payment.
+     */
+    private List<Integer> newOrderIndexes(List<OrderCreatedEvent> events) {
+        Map<String, Integer> firstIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            firstIndexes.putIfAbsent(events.get(i).orderId(), i);
+        }
+        var maybeSeen = firstIndexes.keySet().stream()
+                .filter(orderId -> orderId != null && recentOrderFilter.mightContain(orderId))
+                .toList();
+        if (!maybeSeen.isEmpty()) {
+            var query = Query.query(Criteria.where("orderId").in(maybeSeen));
+            timed("dedupe.lookup", () -> mongoTemplate.findDistinct(query, "orderId", Payment.class, String.class))
+                    .forEach(firstIndexes::remove);
+        }
+        if (firstIndexes.size() < events.size()) {
+            log.debug("Skipping {} payments for already processed orders", events.size() - firstIndexes.size());
+        }
+        return List.copyOf(firstIndexes.values());
+    }
+
+    private List<StatusDecision> decideStatuses(List<OrderCreatedEvent> events) {
+        return Flux.fromIterable(events)
+                .flatMapSequential(event -> Mono.defer(() -> paymentHandlerService.handlePaymentAsync(toRequest(event)))
+                                .map(StatusDecision::decided)
+                                .switchIfEmpty(Mono.error(() ->
+                                        new IllegalStateException("No payment status for order " + event.orderId())))
+                                .onErrorResume(e -> Mono.just(StatusDecision.failed(e))),
+                        maxInFlight)
+                .collectList()
+                .block();
+    }
+
+    private PaymentRequest toRequest(OrderCreatedEvent event) {
+        return new PaymentRequest(
+                event.orderId(),
+                event.userId(),
+                event.paymentAmount());
+    }
+
+    private Payment toPayment(OrderCreatedEvent event, PaymentStatus status) {
+        return Payment.builder()
+                .id(paymentId(event.orderId()))
                 .orderId(event.orderId())
                 .userId(event.userId())
                 .paymentAmount(event.paymentAmount())
                 .status(status)
                 .timestamp(Instant.now())
+                .outboxPending(true)
+                .rollupPending(true)
                 .build();
+    }
+
+    /**
+     * Payment ids are derived from the order id, so a replayed event maps onto the same document.
+     */
+    private UUID paymentId(String orderId) {
+        return UUID.nameUUIDFromBytes(("payment:" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Inserts payments that do not exist yet. A duplicate key on {@code _id} or the unique orderId index
+     * means a concurrent or earlier delivery already stored the payment, so it is skipped rather than failed.
+     * Rollups are updated for every payment this call actually inserted, including when another one failed,
+     * because an unordered bulk write keeps going past errors and the redelivery will see those as duplicates.
+     * A failed rollup write does not fail the batch: the payments are stored and stay pending until reconciled.
+     */
+    private void insertAll(List<Payment> payments, List<Integer> indexes) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        List<BulkWriteError> errors = List.of();
+        try {
+            timed("insert", () -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)
+                    .insert(payments)
+                    .execute());
+        } catch (BulkOperationException e) {
+            errors = e.getErrors();
+            log.debug("Skipped {} payments already stored by another delivery", errors.stream()
+                    .filter(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY)
+                    .count());
+            var failedIndex = errors.stream()
+                    .filter(error -> ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY)
+                    .mapToInt(BulkWriteError::getIndex)
+                    .min();
+            if (failedIndex.isPresent()) {
+                recordInserted(payments, errors);
+                throw new PaymentBatchException(indexes.get(failedIndex.getAsInt()), e);
+            }
+        }
+        recordInserted(payments, errors);
+    }
+
+    private void recordInserted(List<Payment> payments, List<BulkWriteError> errors) {
+        var failed = errors.stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+        var rejected = errors.stream()
+                .filter(error -> ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY)
+                .map(BulkWriteError::getIndex)
+                .collect(Collectors.toSet());
+        List<Payment> inserted = new ArrayList<>(payments.size() - failed.size());
+        for (int i = 0; i < payments.size(); i++) {
+            if (!failed.contains(i)) {
+                inserted.add(payments.get(i));
+            }
+            if (!rejected.contains(i) && payments.get(i).getOrderId() != null) {
+                recentOrderFilter.put(payments.get(i).getOrderId());
+            }
+        }
+        recentPaymentsCache.record(inserted);
+        orderPaymentCache.record(inserted);
+        try {
+            timed("rollups.record", () -> paymentRollupService.record(inserted));
+        } catch (RuntimeException e) {
+            log.error("Error updating payment rollups for {} payments, leaving them to reconciliation: {}",
+                    inserted.size(), e.getMessage());
+            return;
+        }
+        paymentSummaryCache.record(inserted);
+    }
+
+    private <T> T timed(String operation, Supplier<T> call) {
+        return meterRegistry.timer("payment.mongo.operations", "operation", operation).record(call);
+    }
+
+    private void timed(String operation, Runnable call) {
+        meterRegistry.timer("payment.mongo.operations", "operation", operation).record(call);
+    }
+
+    private record StatusDecision(PaymentStatus status, Throwable error) {
+        static StatusDecision decided(PaymentStatus status) {
+            return new StatusDecision(status, null);
+        }
 
-        paymentRepository.save(payment);
-        log.debug("Payment saved successfully: {}", payment);
+        static StatusDecision failed(Throwable error) {
+            return new StatusDecision(null, error);
+        }
     }
 }
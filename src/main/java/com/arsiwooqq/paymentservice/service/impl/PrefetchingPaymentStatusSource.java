@@ -0,0 +1,180 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.service.PaymentStatusSource;
+import com.arsiwooqq.paymentservice.util.LongRingBuffer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out payment statuses from a buffer of random numbers fetched from the provider
+ * in blocks. The buffer is refilled in the background once it drops below the low-water mark.
+ * When it runs dry and the provider does not answer within {@code maxWait},
+ * the status is decided by a local {@link SplittableRandom}.
+ * <p>
+ * Block requests go through a {@link CircuitBreaker}. While it is open the provider is not called
+ * and an empty buffer falls back immediately instead of waiting {@code maxWait} for a refill
+ * that is known to fail.
+ */
+@Slf4j
+public class PrefetchingPaymentStatusSource implements PaymentStatusSource {
+
+    private static final ThreadLocal<SplittableRandom> FALLBACK_RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private final WebClient webClient;
+    private final String url;
+    private final LongRingBuffer buffer;
+    private final int batchSize;
+    private final int lowWaterMark;
+    private final Duration timeout;
+    private final Duration maxWait;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<Mono<Void>> refill = new AtomicReference<>();
+
+    public PrefetchingPaymentStatusSource(WebClient webClient, String url, int capacity, int batchSize,
+                                          int lowWaterMark, Duration timeout, Duration maxWait,
+                                          CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.url = url;
+        this.buffer = new LongRingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.lowWaterMark = lowWaterMark;
+        this.timeout = timeout;
+        this.maxWait = maxWait;
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("payment.status.buffer.size", buffer, LongRingBuffer::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetch() {
+        refill();
+    }
+
+    @Override
+    public Mono<PaymentStatus> nextStatus() {
+        return Mono.defer(() -> {
+            var number = take();
+            if (number.isPresent()) {
+                return Mono.just(toStatus(number.getAsLong()));
+            }
+            if (isOpen()) {
+                log.debug("Random number API circuit is {}, deciding payment status locally", circuitBreaker.getState());
+                return Mono.just(toStatus(fallback()));
+            }
+            log.debug("Random number buffer is empty, waiting up to {} for refill", maxWait);
+            return refill()
+                    .timeout(maxWait, Mono.empty())
+                    .then(Mono.fromSupplier(() -> toStatus(take().orElseGet(this::fallback))));
+        });
+    }
+
+    private boolean isOpen() {
+        var state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    private OptionalLong take() {
+        var number = buffer.poll();
+        if (buffer.size() < lowWaterMark) {
+            refill();
+        }
+        return number;
+    }
+
+    private Mono<Void> refill() {
+        var current = refill.get();
+        if (current != null) {
+            return current;
+        }
+        Sinks.Empty<Void> done = Sinks.empty();
+        var candidate = done.asMono();
+        if (!refill.compareAndSet(null, candidate)) {
+            return Objects.requireNonNullElse(refill.get(), Mono.empty());
+        }
+        fetchBlock()
+                .doFinally(signal -> {
+                    refill.set(null);
+                    done.tryEmitEmpty();
+                })
+                .subscribe(
+                        this::offerAll,
+                        this::logFetchError
+                );
+        return candidate;
+    }
+
+    private Mono<List<Long>> fetchBlock() {
+        var count = Math.min(batchSize, buffer.remainingCapacity());
+        var uri = UriComponentsBuilder.fromUriString(url)
+                .replaceQueryParam("count", count)
+                .toUriString();
+        log.debug("Fetching {} random numbers from API: {}", count, uri);
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return webClient.get()
+                    .uri(uri)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<List<Long>>() {
+                    })
+                    .timeout(timeout)
+                    .doOnSuccess(numbers -> sample.stop(meterRegistry.timer("payment.status.provider.fetch",
+                            "outcome", "success")))
+                    .doOnError(e -> sample.stop(meterRegistry.timer("payment.status.provider.fetch",
+                            "outcome", "failure")));
+        }).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private void logFetchError(Throwable e) {
+        if (e instanceof CallNotPermittedException) {
+            log.debug("Random number API call rejected: {}", e.getMessage());
+            return;
+        }
+        log.error("Error fetching random numbers from API: {}", e.getMessage());
+    }
+
+    private void offerAll(List<Long> numbers) {
+        int offered = 0;
+        for (Long number : numbers) {
+            if (number == null || !buffer.offer(number)) {
+                break;
+            }
+            offered++;
+        }
+        log.debug("Buffered {} random numbers, {} available", offered, buffer.size());
+    }
+
+    private long fallback() {
+        log.debug("Random number API is too slow, deciding payment status locally");
+        meterRegistry.counter("payment.status.fallbacks").increment();
+        return FALLBACK_RANDOM.get().nextInt(2);
+    }
+
+    private PaymentStatus toStatus(long randomNumber) {
+        return randomNumber % 2 == 0 ? PaymentStatus.PAID : PaymentStatus.FAILED;
+    }
+}
@@ -0,0 +1,65 @@
+package com.arsiwooqq.paymentservice.util;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded ring buffer of longs for a single producer and any number of consumers.
+ * Consumers claim slots by CAS on the head sequence, so neither side takes a lock.
+ */
+public class LongRingBuffer {
+    private final long[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Must only be called by the single producer.
+     */
+    public boolean offer(long value) {
+        long t = tail.get();
+        if (t - head.get() >= slots.length) {
+            return false;
+        }
+        slots[(int) (t & mask)] = value;
+        tail.set(t + 1);
+        return true;
+    }
+
+    public OptionalLong poll() {
+        while (true) {
+            long h = head.get();
+            if (h >= tail.get()) {
+                return OptionalLong.empty();
+            }
+            long value = slots[(int) (h & mask)];
+            if (head.compareAndSet(h, h + 1)) {
+                return OptionalLong.of(value);
+            }
+        }
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+}
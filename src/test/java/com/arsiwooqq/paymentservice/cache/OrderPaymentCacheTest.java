@@ -0,0 +1,78 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OrderPaymentCacheTest {
+
+    private final PaymentMapperImpl paymentMapper = new PaymentMapperImpl();
+
+    private final OrderPaymentCache cache =
+            new OrderPaymentCache(100, Duration.ofMinutes(10), paymentMapper, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should serve recorded payments without loading them")
+    void givenRecordedPayment_whenGet_thenLoaderIsNotCalled() {
+        // Given
+        var payment = getPayment();
+        var loads = new AtomicInteger();
+
+        // When
+        cache.record(List.of(payment));
+        var result = cache.get(payment.getOrderId(), key -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        // Then
+        assertAll(
+                () -> assertEquals(Optional.of(paymentMapper.toResponse(payment)), result),
+                () -> assertEquals(0, loads.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Should not cache orders without a payment")
+    void givenMissingPayment_whenGetTwice_thenLoaderIsCalledTwice() {
+        // Given
+        var payment = getPayment();
+        var response = paymentMapper.toResponse(payment);
+        var loads = new AtomicInteger();
+
+        // When
+        var missing = cache.get(payment.getOrderId(), key -> loads.incrementAndGet() == 1 ? null : response);
+        var found = cache.get(payment.getOrderId(), key -> loads.incrementAndGet() == 1 ? null : response);
+
+        // Then
+        assertAll(
+                () -> assertEquals(Optional.empty(), missing),
+                () -> assertEquals(Optional.of(response), found),
+                () -> assertEquals(2, loads.get())
+        );
+    }
+
+    private Payment getPayment() {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .status(PaymentStatus.PAID)
+                .timestamp(Instant.now())
+                .paymentAmount(100L)
+                .build();
+    }
+}
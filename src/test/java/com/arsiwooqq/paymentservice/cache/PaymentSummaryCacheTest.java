@@ -0,0 +1,159 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PaymentSummaryCacheTest {
+
+    private final PaymentSummaryCache cache =
+            new PaymentSummaryCache(100, Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofMinutes(1),
+                    new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should load a window once and serve later calls from cache")
+    void givenCachedWindow_whenGet_thenLoaderCalledOnce() {
+        // Given
+        var loads = new AtomicInteger();
+        var from = Instant.now().minus(2, ChronoUnit.DAYS);
+        var to = Instant.now().minus(1, ChronoUnit.DAYS);
+
+        // When
+        cache.get(from, to, () -> (long) loads.incrementAndGet());
+        var result = cache.get(from, to, () -> (long) loads.incrementAndGet());
+
+        // Then
+        assertAll(
+                () -> assertEquals(1L, result),
+                () -> assertEquals(1, loads.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Should add persisted paid payments to windows containing their timestamp")
+    void givenOpenWindow_whenRecordPaidPayments_thenTotalIsUpdated() {
+        // Given
+        var now = Instant.now();
+        var from = now.minus(1, ChronoUnit.HOURS);
+        var to = now.plus(1, ChronoUnit.HOURS);
+        var past = now.minus(3, ChronoUnit.HOURS);
+        cache.get(from, to, () -> 100L);
+        cache.get(past.minus(1, ChronoUnit.HOURS), past, () -> 7L);
+
+        // When
+        cache.record(List.of(
+                getPayment(PaymentStatus.PAID, now, 50L),
+                getPayment(PaymentStatus.FAILED, now, 1_000L),
+                getPayment(PaymentStatus.PAID, to.plusSeconds(1), 1_000L)
+        ));
+
+        // Then
+        assertAll(
+                () -> assertEquals(150L, cache.get(from, to, () -> -1L)),
+                () -> assertEquals(7L, cache.get(past.minus(1, ChronoUnit.HOURS), past, () -> -1L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reload an open window after its live TTL")
+    void givenExpiredOpenWindow_whenGet_thenReloads() {
+        // Given
+        var shortLived = new PaymentSummaryCache(100, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        var from = Instant.now().minus(1, ChronoUnit.HOURS);
+        var to = Instant.now();
+
+        // When
+        shortLived.get(from, to, () -> 1L);
+        var result = shortLived.get(from, to, () -> 2L);
+
+        // Then
+        assertEquals(2L, result);
+    }
+
+    @Test
+    @DisplayName("Should track only open windows for recording and drop them once they leave the cache")
+    void givenSettledAndOpenWindows_whenGet_thenOnlyOpenWindowsAreTracked() {
+        // Given
+        var shortLived = new PaymentSummaryCache(100, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        var now = Instant.now();
+        var settledTo = now.minus(1, ChronoUnit.DAYS);
+
+        // When
+        cache.get(settledTo.minus(1, ChronoUnit.DAYS), settledTo, () -> 1L);
+        cache.get(now.minus(1, ChronoUnit.HOURS), now.plus(1, ChronoUnit.HOURS), () -> 2L);
+        shortLived.get(now.minus(1, ChronoUnit.HOURS), now.plus(1, ChronoUnit.HOURS), () -> 3L);
+        shortLived.cleanUp();
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, cache.liveWindowCount()),
+                () -> assertEquals(0, shortLived.liveWindowCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reload a settled window after its settled TTL")
+    void givenExpiredSettledWindow_whenGet_thenReloads() {
+        // Given
+        var shortLived = new PaymentSummaryCache(100, Duration.ofMinutes(5), Duration.ZERO, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        var to = Instant.now().minus(1, ChronoUnit.DAYS);
+        var from = to.minus(1, ChronoUnit.DAYS);
+
+        // When
+        shortLived.get(from, to, () -> 1L);
+        var result = shortLived.get(from, to, () -> 2L);
+
+        // Then
+        assertEquals(2L, result);
+    }
+
+    @Test
+    @DisplayName("Should drop only windows overlapping an invalidated range")
+    void givenCachedWindows_whenInvalidate_thenOverlappingWindowsReload() {
+        // Given
+        var now = Instant.now();
+        var minute = now.minus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MINUTES);
+        var open = new Instant[]{now.minus(3, ChronoUnit.DAYS), now.plus(1, ChronoUnit.HOURS)};
+        var before = new Instant[]{minute.minus(1, ChronoUnit.HOURS), minute.minusMillis(1)};
+        var after = new Instant[]{minute.plus(1, ChronoUnit.MINUTES), minute.plus(1, ChronoUnit.HOURS)};
+        cache.get(open[0], open[1], () -> 1L);
+        cache.get(before[0], before[1], () -> 2L);
+        cache.get(after[0], after[1], () -> 3L);
+
+        // When
+        cache.invalidate(minute, minute.plus(1, ChronoUnit.MINUTES));
+
+        // Then
+        assertAll(
+                () -> assertEquals(-1L, cache.get(open[0], open[1], () -> -1L)),
+                () -> assertEquals(2L, cache.get(before[0], before[1], () -> -1L)),
+                () -> assertEquals(3L, cache.get(after[0], after[1], () -> -1L))
+        );
+    }
+
+    private Payment getPayment(PaymentStatus status, Instant timestamp, Long amount) {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .status(status)
+                .timestamp(timestamp)
+                .paymentAmount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.arsiwooqq.paymentservice.cache;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecentPaymentsCacheTest {
+
+    private final PaymentMapperImpl paymentMapper = new PaymentMapperImpl();
+
+    private final RecentPaymentsCache cache =
+            new RecentPaymentsCache(2, 100, Duration.ofMinutes(10), paymentMapper, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("Should load a user's history once, newest first and bounded by capacity")
+    void givenCachedUser_whenGet_thenLoaderCalledOnceAndHistoryTrimmed() {
+        // Given
+        var loads = new AtomicInteger();
+        var now = Instant.now();
+        var history = List.of(
+                getResponse("user", now.minus(2, ChronoUnit.MINUTES)),
+                getResponse("user", now),
+                getResponse("user", now.minus(1, ChronoUnit.MINUTES))
+        );
+
+        // When
+        cache.get("user", key -> {
+            loads.incrementAndGet();
+            return history;
+        });
+        var result = cache.get("user", key -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, loads.get()),
+                () -> assertEquals(List.of(history.get(1), history.get(2)), result)
+        );
+    }
+
+    @Test
+    @DisplayName("Should merge persisted payments into cached histories without duplicates")
+    void givenCachedUser_whenRecord_thenNewestPaymentsAreKept() {
+        // Given
+        var now = Instant.now();
+        var loaded = getPayment("user", now.minus(1, ChronoUnit.MINUTES));
+        cache.get("user", key -> List.of(paymentMapper.toResponse(loaded)));
+        var newest = getPayment("user", now);
+
+        // When
+        cache.record(List.of(newest, loaded, getPayment("user", now.minus(1, ChronoUnit.HOURS))));
+        var result = cache.get("user", key -> List.of());
+
+        // Then
+        assertEquals(List.of(paymentMapper.toResponse(newest), paymentMapper.toResponse(loaded)), result);
+    }
+
+    @Test
+    @DisplayName("Should not start a history for a user that is not cached")
+    void givenUncachedUser_whenRecord_thenHistoryIsLoadedOnNextGet() {
+        // Given
+        var stored = getResponse("user", Instant.now());
+
+        // When
+        cache.record(List.of(getPayment("user", Instant.now())));
+        var result = cache.get("user", key -> List.of(stored));
+
+        // Then
+        assertEquals(List.of(stored), result);
+    }
+
+    @Test
+    @DisplayName("Should reload a history once its TTL since load elapsed, even if it was read and merged into")
+    void givenHistoryOlderThanTtl_whenGet_thenReloads() {
+        // Given
+        var nanos = new AtomicLong();
+        var ttlCache = new RecentPaymentsCache(2, 100, Duration.ofSeconds(30), paymentMapper,
+                new SimpleMeterRegistry(), nanos::get);
+        var stale = getResponse("user", Instant.now().minus(1, ChronoUnit.MINUTES));
+        var stored = getResponse("user", Instant.now());
+        ttlCache.get("user", key -> List.of(stale));
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(20).toNanos());
+        ttlCache.get("user", key -> List.of());
+        ttlCache.record(List.of(getPayment("user", Instant.now())));
+        nanos.addAndGet(Duration.ofSeconds(15).toNanos());
+        var result = ttlCache.get("user", key -> List.of(stored));
+
+        // Then
+        assertEquals(List.of(stored), result);
+    }
+
+    private Payment getPayment(String userId, Instant timestamp) {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID().toString())
+                .userId(userId)
+                .status(PaymentStatus.PAID)
+                .timestamp(timestamp)
+                .paymentAmount(100L)
+                .build();
+    }
+
+    private PaymentResponse getResponse(String userId, Instant timestamp) {
+        return paymentMapper.toResponse(getPayment(userId, timestamp));
+    }
+}
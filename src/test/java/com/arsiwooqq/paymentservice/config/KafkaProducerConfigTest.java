@@ -0,0 +1,63 @@
+package com.arsiwooqq.paymentservice.config;
+
+import com.arsiwooqq.paymentservice.enums.EventFormat;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import com.arsiwooqq.paymentservice.event.codec.BinaryEventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KafkaProducerConfigTest {
+
+    @Test
+    @DisplayName("Should serialize PAYMENT_CREATED in the configured binary format and its dead letter topic as JSON")
+    void givenBinaryValueFormat_whenSerialize_thenRoutesEachTopicToItsSerializer() {
+        // Given
+        var config = new KafkaProducerConfig();
+        config.setTopicName("PAYMENT_CREATED");
+        config.setBootstrapServers("localhost:9092");
+        config.setValueFormat(EventFormat.BINARY);
+        var event = new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.PAID);
+
+        // When
+        var factory = (DefaultKafkaProducerFactory<String, Object>) config.producerFactory(new SimpleMeterRegistry());
+        var serializer = factory.getValueSerializerSupplier().get();
+        var binary = serializer.serialize("PAYMENT_CREATED", new RecordHeaders(), event);
+        var json = serializer.serialize("PAYMENT_CREATED-dlt", new RecordHeaders(), event);
+
+        // Then
+        var text = new String(json, StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertEquals(BinaryEventCodec.MAGIC, binary[0]),
+                () -> assertTrue(text.startsWith("{")),
+                () -> assertTrue(text.contains(event.orderId()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should serialize PAYMENT_CREATED as JSON when JSON value format is configured")
+    void givenJsonValueFormat_whenSerialize_thenWritesJson() {
+        // Given
+        var config = new KafkaProducerConfig();
+        config.setTopicName("PAYMENT_CREATED");
+        config.setBootstrapServers("localhost:9092");
+        var event = new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.FAILED);
+
+        // When
+        var factory = (DefaultKafkaProducerFactory<String, Object>) config.producerFactory(new SimpleMeterRegistry());
+        var payload = factory.getValueSerializerSupplier().get().serialize("PAYMENT_CREATED", new RecordHeaders(), event);
+
+        // Then
+        assertEquals('{', (char) payload[0]);
+    }
+}
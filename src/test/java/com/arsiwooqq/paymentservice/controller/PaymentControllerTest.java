@@ -1,14 +1,20 @@
 package com.arsiwooqq.paymentservice.controller;
 
 import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.entity.PaymentRollup;
 import com.arsiwooqq.paymentservice.enums.PaymentStatus;
 import com.arsiwooqq.paymentservice.repository.PaymentRepository;
+import com.arsiwooqq.paymentservice.service.PaymentRollupService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
 import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -18,11 +24,18 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Testcontainers
@@ -33,6 +46,12 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @MockitoBean
     protected KafkaAdmin kafkaAdmin;
 
@@ -42,6 +61,7 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
     @BeforeEach
     void clearRepositories() {
         paymentRepository.deleteAll();
+        mongoTemplate.remove(new Query(), PaymentRollup.class);
     }
 
     @Test
@@ -137,6 +157,32 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.data.content[0].status").value("PAID"));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return a slice without total when count strategy is none")
+    void givenNoneCountStrategy_whenSearch_thenReturnsSliceWithoutTotal() throws Exception {
+        createAndSavePayment(UUID.randomUUID().toString(), UUID.randomUUID().toString(), PaymentStatus.PAID);
+        createAndSavePayment(UUID.randomUUID().toString(), UUID.randomUUID().toString(), PaymentStatus.PAID);
+
+        mockMvc.perform(get(URI.SEARCH)
+                        .param("count", "none")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(1)))
+                .andExpect(jsonPath("$.data.last").value(false))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return bad request when count strategy is unsupported")
+    void givenUnsupportedCountStrategy_whenSearch_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(URI.SEARCH)
+                        .param("count", "approximate"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     @DisplayName("Should return summary for date period")
@@ -187,6 +233,84 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.data").value(0L));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should page through payments newest first when cursor is followed")
+    void givenCursor_whenSearchByCursor_thenReturnsNextPage() throws Exception {
+        var now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        var newest = UUID.randomUUID().toString();
+        var oldest = UUID.randomUUID().toString();
+        createAndSavePayment(oldest, UUID.randomUUID().toString(), PaymentStatus.PAID, now.minus(2, ChronoUnit.HOURS));
+        createAndSavePayment(UUID.randomUUID().toString(), UUID.randomUUID().toString(), PaymentStatus.PAID,
+                now.minus(1, ChronoUnit.HOURS));
+        createAndSavePayment(newest, UUID.randomUUID().toString(), PaymentStatus.PAID, now);
+
+        var firstPage = mockMvc.perform(get(URI.SEARCH_CURSOR)
+                        .param("size", "2")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(2)))
+                .andExpect(jsonPath("$.data.content[0].orderId").value(newest))
+                .andExpect(jsonPath("$.data.totalElements").value(3))
+                .andReturn();
+        var nextCursor = JsonPath.<String>read(firstPage.getResponse().getContentAsString(), "$.data.nextCursor");
+
+        mockMvc.perform(get(URI.SEARCH_CURSOR)
+                        .param("size", "2")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content", hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].orderId").value(oldest))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should stream filtered payments as CSV when export is requested")
+    void givenUserId_whenExportCsv_thenStreamsFilteredPayments() throws Exception {
+        var userId = UUID.randomUUID().toString();
+        var orderId = UUID.randomUUID().toString();
+        createAndSavePayment(orderId, userId, PaymentStatus.PAID);
+        createAndSavePayment(UUID.randomUUID().toString(), UUID.randomUUID().toString(), PaymentStatus.PAID);
+
+        var result = mockMvc.perform(get(URI.EXPORT)
+                        .param("format", "csv")
+                        .param("userId", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("payments.csv")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains(orderId));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return bad request when export format is unsupported")
+    void givenUnsupportedFormat_whenExport_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(URI.EXPORT)
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return bad request when cursor is malformed")
+    void givenMalformedCursor_whenSearchByCursor_thenReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(URI.SEARCH_CURSOR)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     @DisplayName("Should handle AccessDeniedException when user has user role")
@@ -233,6 +357,64 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false));
     }
 
+    @Test
+    @WithMockUser(username = "owner")
+    @DisplayName("Should return payment of an order to its owner")
+    void givenOwner_whenGetByOrderId_thenReturnsPayment() throws Exception {
+        var orderId = UUID.randomUUID().toString();
+        createAndSavePayment(orderId, "owner", PaymentStatus.PAID);
+
+        mockMvc.perform(get(URI.ORDER, orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.orderId").value(orderId))
+                .andExpect(jsonPath("$.data.status").value("PAID"));
+    }
+
+    @Test
+    @WithMockUser(username = "intruder")
+    @DisplayName("Should return 404 for payment of another user's order, same as for an unknown order")
+    void givenOtherUser_whenGetByOrderId_thenReturnsNotFound() throws Exception {
+        var orderId = UUID.randomUUID().toString();
+        createAndSavePayment(orderId, "owner", PaymentStatus.PAID);
+
+        mockMvc.perform(get(URI.ORDER, orderId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Should return 404 when order has no payment")
+    void givenUnknownOrder_whenGetByOrderId_thenReturnsNotFound() throws Exception {
+        mockMvc.perform(get(URI.ORDER, UUID.randomUUID().toString()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "owner")
+    @DisplayName("Should return recent payments of the authenticated user, newest first")
+    void givenOwner_whenGetRecent_thenReturnsRecentPayments() throws Exception {
+        var now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        createAndSavePayment(UUID.randomUUID().toString(), "owner", PaymentStatus.PAID, now.minusSeconds(60));
+        createAndSavePayment(UUID.randomUUID().toString(), "owner", PaymentStatus.FAILED, now);
+        createAndSavePayment(UUID.randomUUID().toString(), UUID.randomUUID().toString(), PaymentStatus.PAID, now);
+
+        mockMvc.perform(get(URI.RECENT, "owner"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[1].status").value("PAID"));
+    }
+
+    @Test
+    @WithMockUser(username = "intruder")
+    @DisplayName("Should forbid reading recent payments of another user")
+    void givenOtherUser_whenGetRecent_thenReturnsForbidden() throws Exception {
+        mockMvc.perform(get(URI.RECENT, "owner"))
+                .andExpect(status().isForbidden());
+    }
+
     private void createAndSavePayment(String orderId, String userId, PaymentStatus status) {
         Payment payment = Payment.builder()
                 .id(UUID.randomUUID())
@@ -244,6 +426,7 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
                 .build();
 
         paymentRepository.save(payment);
+        paymentRollupService.record(List.of(payment));
     }
 
     private void createAndSavePayment(String orderId, String userId, PaymentStatus status, Instant instant) {
@@ -257,10 +440,15 @@ public class PaymentControllerTest extends AbstractIntegrationTest {
                 .build();
 
         paymentRepository.save(payment);
+        paymentRollupService.record(List.of(payment));
     }
 
     private static class URI {
         static final String SEARCH = "/api/v1/payments/search";
+        static final String SEARCH_CURSOR = "/api/v1/payments/search/cursor";
         static final String SUMMARY = "/api/v1/payments/summary";
+        static final String EXPORT = "/api/v1/payments/export";
+        static final String ORDER = "/api/v1/payments/orders/{orderId}";
+        static final String RECENT = "/api/v1/payments/users/{userId}/recent";
     }
 }
@@ -0,0 +1,102 @@
+package com.arsiwooqq.paymentservice.event.codec;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryEventCodecTest {
+
+    @Test
+    @DisplayName("Should round trip OrderCreatedEvent in fewer bytes than JSON")
+    void givenOrderCreatedEvent_whenEncodeAndDecode_thenRestoresEventInFewerBytes() {
+        // Given
+        var event = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 12_345L);
+
+        // When
+        var binary = BinaryEventCodec.encode(event);
+        var json = new JsonSerializer<>().serialize("ORDER_CREATED", new RecordHeaders(), event);
+
+        // Then
+        assertAll(
+                () -> assertEquals(event, BinaryEventCodec.decode(binary)),
+                () -> assertTrue(binary.length * 2 < json.length)
+        );
+    }
+
+    @Test
+    @DisplayName("Should round trip free-form strings, nulls and negative amounts")
+    void givenNonUuidStringsAndNulls_whenEncodeAndDecode_thenRestoresEvent() {
+        // Given
+        var upperCaseUuid = UUID.randomUUID().toString().toUpperCase();
+        var orderCreated = new OrderCreatedEvent("order-ł-1", upperCaseUuid, -7L);
+        var withNulls = new OrderCreatedEvent(null, null, null);
+        var paymentCreated = new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.FAILED);
+
+        // Then
+        assertAll(
+                () -> assertEquals(orderCreated, BinaryEventCodec.decode(BinaryEventCodec.encode(orderCreated))),
+                () -> assertEquals(withNulls, BinaryEventCodec.decode(BinaryEventCodec.encode(withNulls))),
+                () -> assertEquals(paymentCreated, BinaryEventCodec.decode(BinaryEventCodec.encode(paymentCreated)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject unknown versions and truncated payloads")
+    void givenUnknownVersionOrTruncatedPayload_whenDecode_thenThrowsSerializationException() {
+        // Given
+        var encoded = BinaryEventCodec.encode(new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.PAID));
+        var futureVersion = encoded.clone();
+        futureVersion[2] = 2;
+        var truncated = Arrays.copyOf(encoded, encoded.length - 4);
+
+        // Then
+        assertAll(
+                () -> assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(futureVersion)),
+                () -> assertThrows(SerializationException.class, () -> BinaryEventCodec.decode(truncated))
+        );
+    }
+
+    @Test
+    @DisplayName("Should read both binary and JSON records with the same deserializer")
+    void givenBinaryAndJsonRecords_whenDeserialize_thenReadsBoth() {
+        // Given
+        var deserializer = new BinaryOrJsonEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.TYPE_MAPPINGS,
+                "com.arsiwooqq.orderservice.event.OrderCreatedEvent:com.arsiwooqq.paymentservice.event.OrderCreatedEvent"
+        ), false);
+        var event = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 100L);
+        var headers = new RecordHeaders();
+        headers.add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                "com.arsiwooqq.orderservice.event.OrderCreatedEvent".getBytes(StandardCharsets.UTF_8));
+        var json = ("{\"orderId\":\"" + event.orderId() + "\",\"userId\":\"" + event.userId()
+                + "\",\"paymentAmount\":100}").getBytes(StandardCharsets.UTF_8);
+
+        // When
+        var fromBinary = deserializer.deserialize("ORDER_CREATED", new RecordHeaders(),
+                new BinaryEventSerializer().serialize("ORDER_CREATED", event));
+        var fromJson = deserializer.deserialize("ORDER_CREATED", headers, json);
+
+        // Then
+        assertAll(
+                () -> assertEquals(event, fromBinary),
+                () -> assertEquals(event, fromJson)
+        );
+        deserializer.close();
+    }
+}
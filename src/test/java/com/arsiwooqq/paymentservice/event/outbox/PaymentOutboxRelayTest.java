@@ -0,0 +1,159 @@
+package com.arsiwooqq.paymentservice.event.outbox;
+
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import com.arsiwooqq.paymentservice.event.publisher.PaymentEventPublisher;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentOutboxRelayTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PaymentEventPublisher paymentEventPublisher;
+
+    @InjectMocks
+    private PaymentOutboxRelay paymentOutboxRelay;
+
+    @Test
+    @DisplayName("Should publish claimed payments and clear their outbox flag when sends are acknowledged")
+    void givenPendingPayments_whenRelayBatch_thenPublishesAndClearsFlag() {
+        // Given
+        var paid = getPendingPayment(PaymentStatus.PAID);
+        var failed = getPendingPayment(PaymentStatus.FAILED);
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class)))
+                .thenReturn(List.of(paid, failed))
+                .thenReturn(List.of(paid, failed));
+        when(paymentEventPublisher.publishPaymentCreated(any(PaymentCreatedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        var relayed = paymentOutboxRelay.relayBatch();
+
+        // Then
+        assertEquals(2, relayed);
+        verify(paymentEventPublisher).publishPaymentCreated(new PaymentCreatedEvent(paid.getOrderId(), PaymentStatus.PAID));
+        verify(paymentEventPublisher).publishPaymentCreated(new PaymentCreatedEvent(failed.getOrderId(), PaymentStatus.FAILED));
+        verify(mongoTemplate, times(2)).updateMulti(queries.capture(), updates.capture(), eq(Payment.class));
+        var claim = updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class);
+        var clearedIds = queries.getAllValues().get(1).getQueryObject().get("_id").toString();
+        var cleared = updates.getAllValues().get(1).getUpdateObject().get("$unset", Document.class);
+        assertAll(
+                () -> assertTrue(claim.containsKey("outboxClaimedBy")),
+                () -> assertTrue(claim.containsKey("outboxClaimedUntil")),
+                () -> assertTrue(clearedIds.contains(paid.getId().toString())),
+                () -> assertTrue(clearedIds.contains(failed.getId().toString())),
+                () -> assertTrue(cleared.containsKey("outboxPending")),
+                () -> assertEquals(claim.get("outboxClaimedBy"),
+                        queries.getAllValues().get(1).getQueryObject().get("outboxClaimedBy"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep payment in outbox and release its claim when send is not acknowledged")
+    void givenFailedSend_whenRelayBatch_thenKeepsPaymentPendingAndReleasesClaim() {
+        // Given
+        var acknowledged = getPendingPayment(PaymentStatus.PAID);
+        var rejected = getPendingPayment(PaymentStatus.PAID);
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class)))
+                .thenReturn(List.of(acknowledged, rejected))
+                .thenReturn(List.of(acknowledged, rejected));
+        when(paymentEventPublisher.publishPaymentCreated(any(PaymentCreatedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker is down")));
+
+        var relayed = paymentOutboxRelay.relayBatch();
+
+        // Then
+        assertEquals(0, relayed);
+        verify(mongoTemplate, times(3)).updateMulti(queries.capture(), updates.capture(), eq(Payment.class));
+        var clearedIds = queries.getAllValues().get(1).getQueryObject().get("_id").toString();
+        var releasedIds = queries.getAllValues().get(2).getQueryObject().get("_id").toString();
+        var released = updates.getAllValues().get(2).getUpdateObject().get("$unset", Document.class);
+        assertAll(
+                () -> assertTrue(clearedIds.contains(acknowledged.getId().toString())),
+                () -> assertFalse(clearedIds.contains(rejected.getId().toString())),
+                () -> assertTrue(releasedIds.contains(rejected.getId().toString())),
+                () -> assertFalse(released.containsKey("outboxPending")),
+                () -> assertTrue(released.containsKey("outboxClaimedBy"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should publish only payments this instance claimed when another instance claimed some first")
+    void givenCandidatesClaimedElsewhere_whenRelayBatch_thenPublishesOnlyOwnClaims() {
+        // Given
+        var own = getPendingPayment(PaymentStatus.PAID);
+        var foreign = getPendingPayment(PaymentStatus.PAID);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class)))
+                .thenReturn(List.of(own, foreign))
+                .thenReturn(List.of(own));
+        when(paymentEventPublisher.publishPaymentCreated(any(PaymentCreatedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        var relayed = paymentOutboxRelay.relayBatch();
+
+        // Then
+        assertEquals(1, relayed);
+        verify(paymentEventPublisher).publishPaymentCreated(new PaymentCreatedEvent(own.getOrderId(), PaymentStatus.PAID));
+        verifyNoMoreInteractions(paymentEventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should not publish anything when outbox is empty")
+    void givenNoPendingPayments_whenRelayBatch_thenDoesNothing() {
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+
+        var relayed = paymentOutboxRelay.relayBatch();
+
+        // Then
+        assertEquals(0, relayed);
+        verifyNoInteractions(paymentEventPublisher);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Payment.class));
+    }
+
+    private Payment getPendingPayment(PaymentStatus status) {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .status(status)
+                .timestamp(Instant.now())
+                .paymentAmount(100L)
+                .outboxPending(true)
+                .build();
+    }
+}
@@ -2,12 +2,15 @@ package com.arsiwooqq.paymentservice.event.publisher.impl;
 
 import com.arsiwooqq.paymentservice.enums.PaymentStatus;
 import com.arsiwooqq.paymentservice.event.PaymentCreatedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -17,15 +20,20 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class KafkaPaymentEventPublisherTest {
     @Mock
-    private KafkaTemplate<String, PaymentCreatedEvent> kafkaTemplate;
+    private KafkaTemplate<String, Object> kafkaTemplate;
 
     @Mock
-    private SendResult<String, PaymentCreatedEvent> sendResult;
+    private SendResult<String, Object> sendResult;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private KafkaPaymentEventPublisher kafkaPaymentEventPublisher;
@@ -40,17 +48,19 @@ public class KafkaPaymentEventPublisherTest {
     void givenNoExceptions_whenPublishPaymentCreated_thenPublish() {
         // Given
         var event = new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.PAID);
-        var future = new CompletableFuture<SendResult<String, PaymentCreatedEvent>>();
+        var future = new CompletableFuture<SendResult<String, Object>>();
 
         // When
         when(kafkaTemplate.send(anyString(), eq(event.orderId()), eq(event))).thenReturn(future);
 
-        kafkaPaymentEventPublisher.publishPaymentCreated(event);
+        var result = kafkaPaymentEventPublisher.publishPaymentCreated(event);
 
         future.complete(sendResult);
 
         // Then
         verify(kafkaTemplate, times(1)).send(anyString(), eq(event.orderId()), eq(event));
+        assertEquals(1, meterRegistry.get("payment.events.publish").tag("outcome", "success").timer().count());
+        assertSame(sendResult, result.join());
     }
 
     @Test
@@ -58,7 +68,7 @@ public class KafkaPaymentEventPublisherTest {
     void givenException_whenPublishPaymentCreated_thenNotPublish() {
         // Given
         var event = new PaymentCreatedEvent(UUID.randomUUID().toString(), PaymentStatus.PAID);
-        var future = new CompletableFuture<SendResult<String, PaymentCreatedEvent>>();
+        var future = new CompletableFuture<SendResult<String, Object>>();
         var exception = new RuntimeException();
 
         // When
@@ -70,5 +80,6 @@ public class KafkaPaymentEventPublisherTest {
 
         // Then
         verify(kafkaTemplate, times(1)).send(anyString(), eq(event.orderId()), eq(event));
+        assertEquals(1, meterRegistry.get("payment.events.publish").tag("outcome", "failure").timer().count());
     }
 }
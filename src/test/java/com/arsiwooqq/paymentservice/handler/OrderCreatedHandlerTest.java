@@ -1,19 +1,25 @@
 package com.arsiwooqq.paymentservice.handler;
 
 import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.exception.PaymentBatchException;
 import com.arsiwooqq.paymentservice.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,23 +27,52 @@ public class OrderCreatedHandlerTest {
     @Mock
     private PaymentService paymentService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private OrderCreatedEventHandler orderCreatedEventHandler;
 
     @Test
-    @DisplayName("Should create payment when OrderCreatedEvent is provided")
-    void givenOrderCreatedEvent_whenHandleOrderCreatedEvent_thenCreatesPayment() {
+    @DisplayName("Should create payments when batch of OrderCreatedEvents is provided")
+    void givenOrderCreatedEvents_whenHandleOrderCreatedEvents_thenCreatesPayments() {
+        // Given
+        var events = List.of(
+                new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L),
+                new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L)
+        );
+
+        // When
+        orderCreatedEventHandler.handleOrderCreatedEvents(events);
+
+        // Then
+        verify(paymentService, times(1)).createAll(events);
+        assertAll(
+                () -> assertEquals(2, meterRegistry.get("payment.orders.received").counter().count()),
+                () -> assertEquals(1, meterRegistry.get("payment.orders.persist").tag("outcome", "success").timer().count())
+        );
+    }
+
+    @Test
+    @DisplayName("Should point error handler to failed record when payment batch fails")
+    void givenPaymentBatchException_whenHandleOrderCreatedEvents_thenThrowsBatchListenerFailedException() {
         // Given
-        var event = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
-        var capture = ArgumentCaptor.forClass(OrderCreatedEvent.class);
+        var events = List.of(
+                new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L),
+                new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L)
+        );
+        var cause = new RuntimeException("Provider is down");
 
         // When
-        orderCreatedEventHandler.handleOrderCreatedEvent(event);
+        doThrow(new PaymentBatchException(1, cause)).when(paymentService).createAll(events);
+
+        var exception = assertThrows(BatchListenerFailedException.class,
+                () -> orderCreatedEventHandler.handleOrderCreatedEvents(events));
 
         // Then
-        verify(paymentService, times(1)).create(capture.capture());
         assertAll(
-                () -> assertEquals(event, capture.getValue())
+                () -> assertEquals(1, exception.getIndex()),
+                () -> assertEquals(cause, exception.getCause())
         );
     }
 }
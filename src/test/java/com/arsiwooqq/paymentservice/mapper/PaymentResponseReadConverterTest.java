@@ -0,0 +1,52 @@
+package com.arsiwooqq.paymentservice.mapper;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PaymentResponseReadConverterTest {
+
+    private final PaymentResponseReadConverter converter = new PaymentResponseReadConverter();
+
+    @Test
+    @DisplayName("Should read a stored payment document into a response")
+    void givenPaymentDocument_whenConvert_thenReturnsResponse() {
+        // Given
+        var id = UUID.randomUUID();
+        var timestamp = Instant.parse("2026-10-18T10:15:30.123Z");
+        var document = new Document("_id", id)
+                .append("orderId", "order")
+                .append("userId", "user")
+                .append("status", "PAID")
+                .append("timestamp", Date.from(timestamp))
+                .append("paymentAmount", 100)
+                .append("outboxPending", true);
+
+        // When
+        var response = converter.convert(document);
+
+        // Then
+        assertEquals(new PaymentResponse(id, "order", "user", PaymentStatus.PAID, timestamp, 100L), response);
+    }
+
+    @Test
+    @DisplayName("Should leave missing fields null")
+    void givenPartialDocument_whenConvert_thenReturnsResponseWithNulls() {
+        // Given
+        var id = UUID.randomUUID();
+
+        // When
+        var response = converter.convert(new Document("_id", id));
+
+        // Then
+        assertEquals(new PaymentResponse(id, null, null, null, null, null), response);
+    }
+}
@@ -0,0 +1,146 @@
+package com.arsiwooqq.paymentservice.repository;
+
+import com.arsiwooqq.paymentservice.controller.AbstractIntegrationTest;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Explains the search and summary queries against the indexes created by Liquibase and checks that
+ * they are answered by an index scan without a collection scan or an in-memory sort.
+ */
+@Testcontainers
+@SpringBootTest
+public class PaymentQueryPlanTest extends AbstractIntegrationTest {
+
+    private static final String USER_ID = UUID.randomUUID().toString();
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @MockitoBean
+    protected KafkaAdmin kafkaAdmin;
+
+    @MockitoBean
+    protected KafkaListenerEndpointRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        var payments = new ArrayList<Payment>();
+        for (int i = 0; i < 200; i++) {
+            payments.add(Payment.builder()
+                    .id(UUID.randomUUID())
+                    .orderId(UUID.randomUUID().toString())
+                    .userId(i % 10 == 0 ? USER_ID : UUID.randomUUID().toString())
+                    .status(i % 3 == 0 ? PaymentStatus.FAILED : PaymentStatus.PAID)
+                    .timestamp(Instant.now().minus(i, ChronoUnit.MINUTES))
+                    .paymentAmount(100L + i)
+                    .outboxPending(false)
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+    }
+
+    @Test
+    @DisplayName("Should sum paid payments in a period from the status, timestamp and amount index")
+    void givenSummaryQuery_whenExplain_thenUsesStatusTimestampAmountIndex() {
+        // Given
+        var now = Instant.now();
+        var aggregate = new Document("aggregate", "payments")
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("status", PaymentStatus.PAID.name())
+                                .append("timestamp", new Document("$gte", Date.from(now.minus(1, ChronoUnit.HOURS)))
+                                        .append("$lte", Date.from(now)))),
+                        new Document("$group", new Document("_id", null)
+                                .append("total", new Document("$sum", "$paymentAmount")))))
+                .append("cursor", new Document());
+
+        // When
+        var plan = winningPlanStages(explain(aggregate));
+
+        // Then
+        assertIndexScanWithoutSort(plan, "idx_payments_status_timestamp_amount");
+    }
+
+    @Test
+    @DisplayName("Should page a user's payments by status in timestamp order without an in-memory sort")
+    void givenUserSearchQuery_whenExplain_thenUsesUserTimestampIndexWithoutSort() {
+        // Given
+        var find = new Document("find", "payments")
+                .append("filter", new Document("userId", USER_ID)
+                        .append("status", new Document("$in", List.of(PaymentStatus.PAID.name(), PaymentStatus.FAILED.name()))))
+                .append("sort", new Document("timestamp", -1).append("_id", -1))
+                .append("limit", 20);
+
+        // When
+        var plan = winningPlanStages(explain(find));
+
+        // Then
+        assertIndexScanWithoutSort(plan, "idx_payments_userId_timestamp_id");
+    }
+
+    private Document explain(Document command) {
+        return mongoTemplate.getDb().runCommand(new Document("explain", command)
+                .append("verbosity", "queryPlanner"));
+    }
+
+    private static void assertIndexScanWithoutSort(List<Document> stages, String indexName) {
+        assertAll(
+                () -> assertFalse(stages.isEmpty()),
+                () -> assertTrue(stages.stream().anyMatch(stage -> "IXSCAN".equals(stage.getString("stage"))
+                        && indexName.equals(stage.getString("indexName"))), stages::toString),
+                () -> assertTrue(stages.stream().noneMatch(stage -> "COLLSCAN".equals(stage.getString("stage"))), stages::toString),
+                () -> assertTrue(stages.stream().noneMatch(stage -> "SORT".equals(stage.getString("stage"))), stages::toString)
+        );
+    }
+
+    /**
+     * Collects every stage of every winning plan in the explain output, which nests it differently
+     * for find and aggregate commands and for the classic and slot-based engines.
+     */
+    private static List<Document> winningPlanStages(Document explain) {
+        var stages = new ArrayList<Document>();
+        collect(explain, false, stages);
+        return stages;
+    }
+
+    private static void collect(Object node, boolean inWinningPlan, List<Document> stages) {
+        if (node instanceof Document document) {
+            if (inWinningPlan && document.containsKey("stage")) {
+                stages.add(document);
+            }
+            document.forEach((key, value) -> {
+                if (!"rejectedPlans".equals(key)) {
+                    collect(value, inWinningPlan || "winningPlan".equals(key), stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collect(value, inWinningPlan, stages));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.arsiwooqq.paymentservice.client.AuthServiceClient;
 import com.arsiwooqq.paymentservice.dto.ApiResponse;
 import com.arsiwooqq.paymentservice.dto.ValidateTokenRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,11 +17,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
@@ -41,6 +45,12 @@ class JwtFilterTest {
     @Mock
     private AuthServiceClient authServiceClient;
 
+    @Spy
+    private TokenVerificationCache tokenVerificationCache = new TokenVerificationCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private JwtFilter jwtFilter;
 
@@ -81,11 +91,7 @@ class JwtFilterTest {
     @DisplayName("Should authenticate user when valid token provided and validated")
     void givenValidToken_whenDoFilterInternal_thenAuthenticateUser() throws ServletException, IOException {
         // Given
-        var token = JWT.create()
-                .withSubject("123")
-                .withClaim("role", "USER")
-                .withExpiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
-                .sign(Algorithm.HMAC256("SECRET"));
+        var token = getToken(Instant.now().plus(1, ChronoUnit.DAYS));
 
         var authResponse = ApiResponse.<Boolean>builder()
                 .success(true)
@@ -110,7 +116,7 @@ class JwtFilterTest {
     @DisplayName("Should continue filter chain without authentication when token validation returns false")
     void givenInvalidToken_whenDoFilterInternal_thenContinueWithoutAuthentication() throws ServletException, IOException {
         // Given
-        var token = "TOKEN";
+        var token = getToken(Instant.now().plus(1, ChronoUnit.DAYS));
 
         var authResponse = ApiResponse.<Boolean>builder()
                 .success(true)
@@ -132,7 +138,7 @@ class JwtFilterTest {
     @DisplayName("Should continue filter chain without authentication when authServiceClient throws exception")
     void givenAuthServiceException_whenDoFilterInternal_thenContinueWithoutAuthentication() throws ServletException, IOException {
         // Given
-        var token = "TOKEN";
+        var token = getToken(Instant.now().plus(1, ChronoUnit.DAYS));
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(authServiceClient.validate(any(ValidateTokenRequest.class))).thenThrow(new RuntimeException());
@@ -144,4 +150,86 @@ class JwtFilterTest {
         verify(filterChain).doFilter(request, response);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should authenticate from cache without calling auth service when token was already validated")
+    void givenValidatedToken_whenDoFilterInternalAgain_thenUsesCache() throws ServletException, IOException {
+        // Given
+        var token = getToken(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        var authResponse = ApiResponse.<Boolean>builder()
+                .success(true)
+                .data(true)
+                .build();
+
+        // When
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(authServiceClient.validate(any(ValidateTokenRequest.class))).thenReturn(authResponse);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(authServiceClient, times(1)).validate(any(ValidateTokenRequest.class));
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("123", authentication.getPrincipal());
+    }
+
+    @Test
+    @DisplayName("Should reject expired or malformed token without calling auth service")
+    void givenExpiredOrMalformedToken_whenDoFilterInternal_thenSkipsAuthService() throws ServletException, IOException {
+        // Given
+        var expired = getToken(Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        // When
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + expired, "Bearer TOKEN");
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain, times(2)).doFilter(request, response);
+        verifyNoInteractions(authServiceClient);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Should authenticate and cache a validated token that has no expiry claim")
+    void givenTokenWithoutExpiry_whenDoFilterInternal_thenAuthenticatesFromCacheOnRepeat() throws ServletException, IOException {
+        // Given
+        var token = JWT.create()
+                .withSubject("123")
+                .withClaim("role", "USER")
+                .sign(Algorithm.HMAC256("SECRET"));
+
+        var authResponse = ApiResponse.<Boolean>builder()
+                .success(true)
+                .data(true)
+                .build();
+
+        // When
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(authServiceClient.validate(any(ValidateTokenRequest.class))).thenReturn(authResponse);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(authServiceClient, times(1)).validate(any(ValidateTokenRequest.class));
+        verify(filterChain, times(2)).doFilter(request, response);
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("123", authentication.getPrincipal());
+    }
+
+    private String getToken(Instant expiresAt) {
+        return JWT.create()
+                .withSubject("123")
+                .withClaim("role", "USER")
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC256("SECRET"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.dto.PaymentResponse;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.ExportFormat;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentExportServiceImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PaymentMapper paymentMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PaymentExportServiceImpl paymentExportService;
+
+    @Test
+    @DisplayName("Should write one JSON document per line and close the cursor when exporting NDJSON")
+    void givenPayments_whenExportNdjson_thenWritesOneDocumentPerLine() throws IOException {
+        // Given
+        var first = getPayment("order-1");
+        var second = getPayment("order-2");
+        var closed = new AtomicBoolean();
+        var out = new ByteArrayOutputStream();
+
+        // When
+        when(mongoTemplate.stream(any(Query.class), eq(Payment.class)))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        when(paymentMapper.toResponse(any(Payment.class))).thenAnswer(invocation -> toResponse(invocation.getArgument(0)));
+
+        var exported = paymentExportService.export(ExportFormat.NDJSON, null, null, null, out);
+
+        // Then
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertAll(
+                () -> assertEquals(2, exported),
+                () -> assertEquals(2, lines.length),
+                () -> assertEquals("order-1", objectMapper.readTree(lines[0]).get("orderId").asText()),
+                () -> assertEquals("2026-10-18T10:15:30Z", objectMapper.readTree(lines[1]).get("timestamp").asText()),
+                () -> assertTrue(closed.get()),
+                () -> assertEquals(2.0, meterRegistry.counter("payment.export.rows", "format", "ndjson").count())
+        );
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Payment.class));
+    }
+
+    @Test
+    @DisplayName("Should write header and quote fields containing separators when exporting CSV")
+    void givenPaymentWithSeparatorInOrderId_whenExportCsv_thenQuotesField() throws IOException {
+        // Given
+        var payment = getPayment("order,\"1\"");
+        var out = new ByteArrayOutputStream();
+
+        // When
+        when(mongoTemplate.stream(any(Query.class), eq(Payment.class))).thenReturn(Stream.of(payment));
+        when(paymentMapper.toResponse(payment)).thenReturn(toResponse(payment));
+
+        paymentExportService.export(ExportFormat.CSV, null, null, List.of("PAID"), out);
+
+        // Then
+        var lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertAll(
+                () -> assertEquals("id,orderId,userId,status,timestamp,paymentAmount", lines[0]),
+                () -> assertEquals(payment.getId() + ",\"order,\"\"1\"\"\"," + payment.getUserId()
+                        + ",PAID,2026-10-18T10:15:30Z,100", lines[1])
+        );
+    }
+
+    @Test
+    @DisplayName("Should neutralize fields a spreadsheet would evaluate as formulas when exporting CSV")
+    void givenFormulaInOrderAndUserId_whenExportCsv_thenPrefixesAndQuotesFields() throws IOException {
+        // Given
+        var payment = getPayment("=HYPERLINK(\"http://evil\")");
+        payment.setUserId("@SUM(A1)");
+        var out = new ByteArrayOutputStream();
+
+        // When
+        when(mongoTemplate.stream(any(Query.class), eq(Payment.class))).thenReturn(Stream.of(payment));
+        when(paymentMapper.toResponse(payment)).thenReturn(toResponse(payment));
+
+        paymentExportService.export(ExportFormat.CSV, null, null, null, out);
+
+        // Then
+        var lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(payment.getId() + ",\"'=HYPERLINK(\"\"http://evil\"\")\",\"'@SUM(A1)\""
+                + ",PAID,2026-10-18T10:15:30Z,100", lines[1]);
+    }
+
+    @Test
+    @DisplayName("Should close the cursor when the client disconnects mid-export")
+    void givenFailingOutput_whenExport_thenClosesCursorAndRethrows() {
+        // Given
+        var closed = new AtomicBoolean();
+        var payments = Stream.generate(() -> getPayment("order")).limit(10_000).onClose(() -> closed.set(true));
+        var out = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                throw new IllegalStateException("Broken pipe");
+            }
+        };
+
+        // When
+        when(mongoTemplate.stream(any(Query.class), eq(Payment.class))).thenReturn(payments);
+        when(paymentMapper.toResponse(any(Payment.class))).thenAnswer(invocation -> toResponse(invocation.getArgument(0)));
+
+        // Then
+        assertThrows(IllegalStateException.class,
+                () -> paymentExportService.export(ExportFormat.CSV, null, null, null, out));
+        assertTrue(closed.get());
+    }
+
+    private Payment getPayment(String orderId) {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(orderId)
+                .userId(UUID.randomUUID().toString())
+                .status(PaymentStatus.PAID)
+                .timestamp(Instant.parse("2026-10-18T10:15:30Z"))
+                .paymentAmount(100L)
+                .build();
+    }
+
+    private PaymentResponse toResponse(Payment payment) {
+        return new PaymentResponse(payment.getId(), payment.getOrderId(), payment.getUserId(),
+                payment.getStatus(), payment.getTimestamp(), payment.getPaymentAmount());
+    }
+}
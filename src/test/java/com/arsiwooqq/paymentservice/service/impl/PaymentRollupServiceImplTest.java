@@ -0,0 +1,239 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.cache.PaymentSummaryCache;
+import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.entity.PaymentRollup;
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.arsiwooqq.paymentservice.enums.RollupGranularity;
+import com.arsiwooqq.paymentservice.repository.PaymentRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentRollupServiceImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentSummaryCache paymentSummaryCache;
+
+    @InjectMocks
+    private PaymentRollupServiceImpl paymentRollupService;
+
+    @Test
+    @DisplayName("Should increment one bucket per granularity and clear pending flags when payments share a minute")
+    void givenPaymentsInSameMinute_whenRecord_thenUpsertsOneBucketPerGranularity() {
+        // Given
+        var timestamp = Instant.parse("2026-10-18T10:15:30Z");
+        var payments = List.of(
+                getPayment(PaymentStatus.PAID, timestamp, 100L),
+                getPayment(PaymentStatus.PAID, timestamp.plusSeconds(10), 50L)
+        );
+        var bulkOperations = mock(BulkOperations.class);
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+        var pendingUpdate = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class)).thenReturn(bulkOperations);
+
+        paymentRollupService.record(payments);
+
+        // Then
+        var inOrder = inOrder(bulkOperations, mongoTemplate);
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(mongoTemplate).updateMulti(any(Query.class), pendingUpdate.capture(), eq(Payment.class));
+        verify(bulkOperations, times(3)).upsert(queries.capture(), updates.capture());
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), any(String.class), eq(Document.class));
+        var ids = queries.getAllValues().stream().map(query -> query.getQueryObject().get("_id")).toList();
+        var increments = (Document) updates.getAllValues().get(0).getUpdateObject().get("$inc");
+        assertAll(
+                () -> assertEquals(List.of(
+                        "MINUTE:PAID:2026-10-18T10:15:00Z",
+                        "HOUR:PAID:2026-10-18T10:00:00Z",
+                        "DAY:PAID:2026-10-18T00:00:00Z"), ids),
+                () -> assertEquals(150L, increments.get("amount")),
+                () -> assertEquals(2L, increments.get("count")),
+                () -> assertTrue(pendingUpdate.getValue().getUpdateObject().toJson().contains("rollupPending"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should replace drifted minute buckets and add the difference to hour and day buckets when reconciling")
+    void givenPendingPayments_whenReconcile_thenRecomputesMinutesAndPropagatesDelta() {
+        // Given
+        var minute = Instant.parse("2026-10-18T10:15:00Z");
+        var pending = getPayment(PaymentStatus.PAID, minute.plusSeconds(30), 100L);
+        var stored = PaymentRollup.builder()
+                .id("MINUTE:PAID:2026-10-18T10:15:00Z")
+                .amount(50L)
+                .count(1L)
+                .build();
+        var bulkOperations = mock(BulkOperations.class);
+        var pendingQuery = ArgumentCaptor.forClass(Query.class);
+        var minuteUpdate = ArgumentCaptor.forClass(Update.class);
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+
+        // When
+        when(mongoTemplate.find(pendingQuery.capture(), eq(Payment.class))).thenReturn(List.of(pending));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("payments"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", new Document("status", "PAID")
+                        .append("bucketStart", Date.from(minute)))
+                        .append("amount", 150L)
+                        .append("count", 2)), new Document()));
+        when(mongoTemplate.findAndModify(any(Query.class), minuteUpdate.capture(), any(FindAndModifyOptions.class),
+                eq(PaymentRollup.class))).thenReturn(stored);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class)).thenReturn(bulkOperations);
+
+        paymentRollupService.reconcile();
+
+        // Then
+        verify(bulkOperations, times(2)).upsert(queries.capture(), updates.capture());
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Payment.class));
+        verify(paymentSummaryCache).invalidate(eq(pending.getTimestamp()), any(Instant.class));
+        var replaced = (Document) minuteUpdate.getValue().getUpdateObject().get("$set");
+        var ids = queries.getAllValues().stream().map(query -> query.getQueryObject().get("_id")).toList();
+        var increments = (Document) updates.getAllValues().get(0).getUpdateObject().get("$inc");
+        assertAll(
+                () -> assertEquals(true, pendingQuery.getValue().getQueryObject().get("rollupPending")),
+                () -> assertEquals(150L, replaced.get("amount")),
+                () -> assertEquals(2L, replaced.get("count")),
+                () -> assertEquals(List.of("HOUR:PAID:2026-10-18T10:00:00Z", "DAY:PAID:2026-10-18T00:00:00Z"), ids),
+                () -> assertEquals(100L, increments.get("amount")),
+                () -> assertEquals(1L, increments.get("count"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should only clear pending flags when reconciled minute buckets already hold the right totals")
+    void givenUpToDateMinute_whenReconcile_thenDoesNotTouchCoarserBuckets() {
+        // Given
+        var minute = Instant.parse("2026-10-18T10:15:00Z");
+        var pending = getPayment(PaymentStatus.PAID, minute.plusSeconds(30), 100L);
+        var stored = PaymentRollup.builder().amount(100L).count(1L).build();
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of(pending));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("payments"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", new Document("status", "PAID")
+                        .append("bucketStart", Date.from(minute)))
+                        .append("amount", 100L)
+                        .append("count", 1)), new Document()));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PaymentRollup.class))).thenReturn(stored);
+
+        paymentRollupService.reconcile();
+
+        // Then
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(PaymentRollup.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(Payment.class));
+    }
+
+    @Test
+    @DisplayName("Should not touch rollups when no payment is pending")
+    void givenNoPendingPayments_whenReconcile_thenDoesNothing() {
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+
+        paymentRollupService.reconcile();
+
+        // Then
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), any(String.class), eq(Document.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Payment.class));
+        verifyNoInteractions(paymentSummaryCache);
+    }
+
+    @Test
+    @DisplayName("Should sum raw payments only when range does not contain a whole minute")
+    void givenSubMinuteRange_whenSumOfPayments_thenSumsRawPayments() {
+        // Given
+        var from = Instant.parse("2026-10-18T10:15:10Z");
+        var to = Instant.parse("2026-10-18T10:15:50Z");
+
+        // When
+        when(paymentRepository.sumOfPayments(from, to, PaymentStatus.PAID)).thenReturn(70L);
+
+        var result = paymentRollupService.sumOfPayments(from, to, PaymentStatus.PAID);
+
+        // Then
+        assertEquals(70L, result);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should combine day, hour and minute buckets with raw edges when range is long")
+    void givenLongRange_whenSumOfPayments_thenCombinesBucketsWithRawEdges() {
+        // Given
+        var from = Instant.parse("2026-01-01T10:15:30Z");
+        var to = Instant.parse("2026-10-18T12:30:15Z");
+        var aggregation = ArgumentCaptor.forClass(Aggregation.class);
+
+        // When
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(PaymentRollup.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("total", 1_000L)), new Document()));
+        when(paymentRepository.sumOfPayments(from, Instant.parse("2026-01-01T10:15:59.999Z"), PaymentStatus.PAID))
+                .thenReturn(10L);
+        when(paymentRepository.sumOfPayments(Instant.parse("2026-10-18T12:30:00Z"), to, PaymentStatus.PAID))
+                .thenReturn(5L);
+
+        var result = paymentRollupService.sumOfPayments(from, to, PaymentStatus.PAID);
+
+        // Then
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(PaymentRollup.class), eq(Document.class));
+        var match = aggregation.getValue().toString();
+        assertAll(
+                () -> assertEquals(1_015L, result),
+                () -> assertTrue(match.contains(RollupGranularity.DAY.name())),
+                () -> assertTrue(match.contains(RollupGranularity.HOUR.name())),
+                () -> assertTrue(match.contains(RollupGranularity.MINUTE.name()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should return zero when range is inverted")
+    void givenInvertedRange_whenSumOfPayments_thenReturnsZero() {
+        var now = Instant.now();
+
+        assertEquals(0L, paymentRollupService.sumOfPayments(now, now.minusSeconds(1), PaymentStatus.PAID));
+        verifyNoInteractions(mongoTemplate, paymentRepository);
+    }
+
+    private Payment getPayment(PaymentStatus status, Instant timestamp, Long amount) {
+        return Payment.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .status(status)
+                .timestamp(timestamp)
+                .paymentAmount(amount)
+                .build();
+    }
+}
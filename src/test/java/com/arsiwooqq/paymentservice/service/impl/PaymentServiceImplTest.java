@@ -1,13 +1,30 @@
 package com.arsiwooqq.paymentservice.service.impl;
 
+import com.arsiwooqq.paymentservice.cache.OrderPaymentCache;
+import com.arsiwooqq.paymentservice.cache.PaymentSummaryCache;
+import com.arsiwooqq.paymentservice.cache.RecentPaymentsCache;
+import com.arsiwooqq.paymentservice.dto.CappedPage;
 import com.arsiwooqq.paymentservice.dto.PaymentRequest;
 import com.arsiwooqq.paymentservice.dto.PaymentResponse;
 import com.arsiwooqq.paymentservice.entity.Payment;
+import com.arsiwooqq.paymentservice.enums.CountStrategy;
 import com.arsiwooqq.paymentservice.enums.PaymentStatus;
 import com.arsiwooqq.paymentservice.event.OrderCreatedEvent;
+import com.arsiwooqq.paymentservice.exception.InvalidCursorException;
+import com.arsiwooqq.paymentservice.exception.PaymentBatchException;
+import com.arsiwooqq.paymentservice.exception.PaymentNotFoundException;
 import com.arsiwooqq.paymentservice.mapper.PaymentMapper;
-import com.arsiwooqq.paymentservice.repository.PaymentRepository;
+import com.arsiwooqq.paymentservice.mapper.PaymentMapperImpl;
 import com.arsiwooqq.paymentservice.service.PaymentHandlerService;
+import com.arsiwooqq.paymentservice.service.PaymentRollupService;
+import com.arsiwooqq.paymentservice.util.RotatingBloomFilter;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,18 +32,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -34,7 +62,7 @@ import static org.mockito.Mockito.*;
 public class PaymentServiceImplTest {
 
     @Mock
-    private PaymentRepository paymentRepository;
+    private PaymentRollupService paymentRollupService;
 
     @Mock
     private PaymentMapper paymentMapper;
@@ -45,6 +73,25 @@ public class PaymentServiceImplTest {
     @Mock
     private PaymentHandlerService paymentHandlerService;
 
+    @Spy
+    private RotatingBloomFilter recentOrderFilter = new RotatingBloomFilter(1_000, 0.01);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PaymentSummaryCache paymentSummaryCache =
+            new PaymentSummaryCache(100, Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(1),
+                    new SimpleMeterRegistry());
+
+    @Spy
+    private RecentPaymentsCache recentPaymentsCache =
+            new RecentPaymentsCache(20, 100, Duration.ofMinutes(10), new PaymentMapperImpl(), new SimpleMeterRegistry());
+
+    @Spy
+    private OrderPaymentCache orderPaymentCache =
+            new OrderPaymentCache(100, Duration.ofMinutes(10), new PaymentMapperImpl(), new SimpleMeterRegistry());
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -55,12 +102,10 @@ public class PaymentServiceImplTest {
         var payment = getPayment();
         var response = getPaymentResponse(payment);
         var pageable = PageRequest.of(0, 10);
-        var paymentList = List.of(payment);
 
         // When
         when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(1L);
-        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(paymentList);
-        when(paymentMapper.toResponse(payment)).thenReturn(response);
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of(response));
 
         var result = paymentService.search(pageable, null, null, null);
 
@@ -70,8 +115,8 @@ public class PaymentServiceImplTest {
                 () -> assertEquals(1, result.getContent().size())
         );
         verify(mongoTemplate, times(1)).count(any(Query.class), eq(Payment.class));
-        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Payment.class));
-        verify(paymentMapper, times(1)).toResponse(payment);
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(PaymentResponse.class), eq("payments"));
+        verifyNoInteractions(paymentMapper);
     }
 
     @Test
@@ -84,7 +129,7 @@ public class PaymentServiceImplTest {
 
         // When
         when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(0L);
-        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
 
         var result = paymentService.search(pageable, orderId, null, null);
 
@@ -108,7 +153,7 @@ public class PaymentServiceImplTest {
 
         // When
         when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(0L);
-        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
 
         var result = paymentService.search(pageable, null, userId, List.of());
 
@@ -132,7 +177,7 @@ public class PaymentServiceImplTest {
 
         // When
         when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(0L);
-        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
 
         var result = paymentService.search(pageable, null, null, statuses);
 
@@ -159,7 +204,7 @@ public class PaymentServiceImplTest {
 
         // When
         when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(0L);
-        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
 
         var result = paymentService.search(pageable, orderId, userId, statuses);
 
@@ -175,6 +220,152 @@ public class PaymentServiceImplTest {
         );
     }
 
+    @Test
+    @DisplayName("Should return next cursor without counting when more payments than page size exist")
+    void givenMorePaymentsThanSize_whenSearchByCursor_thenReturnsNextCursor() {
+        // Given
+        var newest = getPayment();
+        var middle = getPayment();
+        var oldest = getPayment();
+        var captor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of(newest, middle, oldest));
+        when(paymentMapper.toResponse(any(Payment.class))).thenAnswer(i -> getPaymentResponse(i.getArgument(0)));
+
+        var result = paymentService.searchByCursor(null, 2, null, null, null, false);
+
+        // Then
+        verify(mongoTemplate).find(captor.capture(), eq(Payment.class));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Payment.class));
+        var query = captor.getValue();
+        assertAll(
+                () -> assertEquals(2, result.content().size()),
+                () -> assertNull(result.totalElements()),
+                () -> assertEquals(PaymentCursor.of(middle).encode(), result.nextCursor()),
+                () -> assertEquals(3, query.getLimit()),
+                () -> assertEquals(-1, query.getSortObject().get("timestamp")),
+                () -> assertEquals(-1, query.getSortObject().get("_id"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should seek after cursor position and count when total is requested")
+    void givenCursorAndIncludeTotal_whenSearchByCursor_thenSeeksAfterCursorAndCounts() {
+        // Given
+        var last = getPayment();
+        var cursor = PaymentCursor.of(last).encode();
+        var captor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(5L);
+        when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenReturn(List.of());
+
+        var result = paymentService.searchByCursor(cursor, 2, null, "userId", null, true);
+
+        // Then
+        verify(mongoTemplate).find(captor.capture(), eq(Payment.class));
+        var queryObject = captor.getValue().getQueryObject();
+        assertAll(
+                () -> assertEquals(5L, result.totalElements()),
+                () -> assertNull(result.nextCursor()),
+                () -> assertEquals("userId", queryObject.get("userId")),
+                () -> assertTrue(queryObject.containsKey("$or"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException when cursor is malformed")
+    void givenMalformedCursor_whenSearchByCursor_thenThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class,
+                () -> paymentService.searchByCursor("not-a-cursor", 2, null, null, null, false));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should probe for a next page without counting when count strategy is NONE")
+    void givenNoneCountStrategy_whenSearch_thenReturnsSliceWithoutCount() {
+        // Given
+        var payments = Stream.of(getPayment(), getPayment(), getPayment()).map(this::getPaymentResponse).toList();
+        var pageable = PageRequest.of(0, 2);
+        var captor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(payments);
+
+        var result = paymentService.search(pageable, null, null, List.of("PAID"), CountStrategy.NONE);
+
+        // Then
+        verify(mongoTemplate).find(captor.capture(), eq(PaymentResponse.class), eq("payments"));
+        Assertions.assertAll(
+                () -> assertFalse(result instanceof Page<?>),
+                () -> assertTrue(result.hasNext()),
+                () -> assertEquals(2, result.getContent().size()),
+                () -> assertEquals(3, captor.getValue().getLimit()),
+                () -> assertEquals(1, captor.getValue().getFieldsObject().get("orderId")),
+                () -> assertFalse(captor.getValue().getFieldsObject().containsKey("outboxPending"))
+        );
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Payment.class));
+    }
+
+    @Test
+    @DisplayName("Should stop counting at the cap when count strategy is CAPPED")
+    void givenCappedCountStrategy_whenSearch_thenCountsWithLimit() {
+        // Given
+        var pageable = PageRequest.of(0, 10);
+        var captor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(10_000L);
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
+
+        var result = paymentService.search(pageable, null, null, List.of("PAID"), CountStrategy.CAPPED);
+
+        // Then
+        verify(mongoTemplate).count(captor.capture(), eq(Payment.class));
+        Assertions.assertAll(
+                () -> assertEquals(10_000L, ((Page<?>) result).getTotalElements()),
+                () -> assertEquals(10_000, captor.getValue().getLimit()),
+                () -> assertTrue(((CappedPage<?>) result).isTotalCapped())
+        );
+    }
+
+    @Test
+    @DisplayName("Should report an exact total when fewer payments match than the cap")
+    void givenCountBelowCap_whenSearchCapped_thenTotalIsNotFlaggedAsCapped() {
+        // Given
+        var pageable = PageRequest.of(0, 10);
+
+        // When
+        when(mongoTemplate.count(any(Query.class), eq(Payment.class))).thenReturn(42L);
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
+
+        var result = paymentService.search(pageable, null, null, List.of("PAID"), CountStrategy.CAPPED);
+
+        // Then
+        assertAll(
+                () -> assertEquals(42L, ((Page<?>) result).getTotalElements()),
+                () -> assertFalse(((CappedPage<?>) result).isTotalCapped())
+        );
+    }
+
+    @Test
+    @DisplayName("Should use estimated document count when count strategy is ESTIMATED and no filter is given")
+    void givenEstimatedCountStrategyAndNoFilters_whenSearch_thenUsesEstimatedCount() {
+        // Given
+        var pageable = PageRequest.of(0, 10);
+
+        // When
+        when(mongoTemplate.estimatedCount(Payment.class)).thenReturn(5_000_000L);
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of());
+
+        var result = paymentService.search(pageable, null, null, null, CountStrategy.ESTIMATED);
+
+        // Then
+        assertEquals(5_000_000L, ((Page<?>) result).getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Payment.class));
+    }
+
     @Test
     @DisplayName("Should return total amount of paid payments in period")
     void givenPeriod_whenGetTotalAmountOfPaidInPeriod_thenReturnsTotalAmount() {
@@ -183,40 +374,383 @@ public class PaymentServiceImplTest {
         var to = Instant.now();
 
         // When
-        when(paymentRepository.sumOfPayments(from, to, PaymentStatus.PAID)).thenReturn(100L);
+        when(paymentRollupService.sumOfPayments(from, to, PaymentStatus.PAID)).thenReturn(100L);
+
+        var result = paymentService.getTotalAmountOfPaidInPeriod(from, to);
+
+        // Then
+        assertEquals(100L, result);
+        verify(paymentRollupService, times(1)).sumOfPayments(from, to, PaymentStatus.PAID);
+        verifyNoMoreInteractions(paymentRollupService);
+    }
+
+    @Test
+    @DisplayName("Should load recent payments of a user once and serve later calls from cache")
+    void givenUserId_whenGetRecent_thenQueriesNewestPaymentsOnce() {
+        // Given
+        var userId = UUID.randomUUID().toString();
+        var response = getPaymentResponse(getPayment());
+        var captor = ArgumentCaptor.forClass(Query.class);
+
+        // When
+        when(mongoTemplate.find(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(List.of(response));
+
+        paymentService.getRecent(userId);
+        var result = paymentService.getRecent(userId);
+
+        // Then
+        verify(mongoTemplate, times(1)).find(captor.capture(), eq(PaymentResponse.class), eq("payments"));
+        var query = captor.getValue();
+        assertAll(
+                () -> assertEquals(List.of(response), result),
+                () -> assertEquals(userId, query.getQueryObject().get("userId")),
+                () -> assertEquals(20, query.getLimit()),
+                () -> assertEquals(-1, query.getSortObject().get("timestamp"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should load payment of an order once and serve later lookups from cache")
+    void givenOrderId_whenGetByOrderId_thenQueriesOnce() {
+        // Given
+        var response = getPaymentResponse(getPayment());
+
+        // When
+        when(mongoTemplate.findOne(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(response);
+
+        paymentService.getByOrderId(response.orderId(), null);
+        var result = paymentService.getByOrderId(response.orderId(), response.userId());
+
+        // Then
+        assertEquals(response, result);
+        verify(mongoTemplate, times(1)).findOne(any(Query.class), eq(PaymentResponse.class), eq("payments"));
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentNotFoundException when order has no payment")
+    void givenUnknownOrderId_whenGetByOrderId_thenThrowsPaymentNotFoundException() {
+        // When
+        when(mongoTemplate.findOne(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(null);
+
+        // Then
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getByOrderId("unknown", null));
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentNotFoundException when order payment belongs to another user")
+    void givenOtherUser_whenGetByOrderId_thenThrowsPaymentNotFoundException() {
+        // Given
+        var response = getPaymentResponse(getPayment());
+
+        // When
+        when(mongoTemplate.findOne(any(Query.class), eq(PaymentResponse.class), eq("payments"))).thenReturn(response);
 
+        // Then
+        assertThrows(PaymentNotFoundException.class,
+                () -> paymentService.getByOrderId(response.orderId(), "another-user"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated summary of the same period from cache")
+    void givenRepeatedPeriod_whenGetTotalAmountOfPaidInPeriod_thenAggregatesOnce() {
+        // Given
+        var from = Instant.now().minus(2, ChronoUnit.DAYS);
+        var to = Instant.now().minus(1, ChronoUnit.DAYS);
+
+        // When
+        when(paymentRollupService.sumOfPayments(from, to, PaymentStatus.PAID)).thenReturn(100L);
+
+        paymentService.getTotalAmountOfPaidInPeriod(from, to);
         var result = paymentService.getTotalAmountOfPaidInPeriod(from, to);
 
         // Then
         assertEquals(100L, result);
-        verify(paymentRepository, times(1)).sumOfPayments(from, to, PaymentStatus.PAID);
-        verifyNoMoreInteractions(paymentRepository);
+        verify(paymentRollupService, times(1)).sumOfPayments(from, to, PaymentStatus.PAID);
     }
 
     @Test
-    @DisplayName("Should create payment when event is provided")
+    @DisplayName("Should create payment with id derived from orderId when event is provided")
     void givenEvent_whenCreate_thenCreatesPayment() {
         // Given
         var event = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
         var request = new PaymentRequest(event.orderId(), event.userId(), event.paymentAmount());
-        var capture = ArgumentCaptor.forClass(Payment.class);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
 
         // When
-        when(paymentHandlerService.handlePayment(request)).thenReturn(PaymentStatus.PAID);
+        when(paymentHandlerService.handlePaymentAsync(request)).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("orderId"), eq(Payment.class), eq(String.class)))
+                .thenReturn(List.of(event.orderId()));
 
         paymentService.create(event);
+        paymentService.create(event);
 
         // Then
-        verify(paymentHandlerService, times(1)).handlePayment(request);
-        verify(paymentRepository, times(1)).save(capture.capture());
-        var payment = capture.getValue();
+        verify(paymentHandlerService, times(1)).handlePaymentAsync(request);
+        verify(bulkOperations, times(1)).insert(capture.capture());
+        var payment = capture.getValue().get(0);
         assertAll(
+                () -> assertEquals(UUID.nameUUIDFromBytes(("payment:" + event.orderId()).getBytes()), payment.getId()),
                 () -> assertEquals(event.orderId(), payment.getOrderId()),
                 () -> assertEquals(event.userId(), payment.getUserId()),
                 () -> assertEquals(PaymentStatus.PAID, payment.getStatus()),
                 () -> assertNotNull(payment.getTimestamp()),
-                () -> assertEquals(event.paymentAmount(), payment.getPaymentAmount())
+                () -> assertEquals(event.paymentAmount(), payment.getPaymentAmount()),
+                () -> assertEquals(true, payment.getOutboxPending())
+        );
+    }
+
+    @Test
+    @DisplayName("Should insert all payments with single bulk operation when batch is provided")
+    void givenEvents_whenCreateAll_thenInsertsPaymentsInBulk() {
+        // Given
+        var first = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var second = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class)))
+                .thenReturn(Mono.just(PaymentStatus.PAID), Mono.just(PaymentStatus.FAILED));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        paymentService.createAll(List.of(first, second));
+
+        // Then
+        verify(bulkOperations, times(1)).insert(capture.capture());
+        verify(bulkOperations, times(1)).execute();
+        var payments = capture.getValue();
+        verify(paymentRollupService).record(payments);
+        assertAll(
+                () -> assertEquals(2, payments.size()),
+                () -> assertEquals(first.orderId(), payments.get(0).getOrderId()),
+                () -> assertEquals(PaymentStatus.PAID, payments.get(0).getStatus()),
+                () -> assertEquals(second.orderId(), payments.get(1).getOrderId()),
+                () -> assertEquals(PaymentStatus.FAILED, payments.get(1).getStatus()),
+                () -> assertTrue(payments.stream().allMatch(Payment::getOutboxPending))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep the stored batch and not add payments to cached summaries when rollup write fails")
+    void givenRollupFailure_whenCreateAll_thenStoresBatchAndSummaryCacheIsNotUpdated() {
+        // Given
+        var first = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var second = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var stored = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 30L);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+        recentOrderFilter.put(stored.orderId());
+
+        // When
+        when(mongoTemplate.findDistinct(any(Query.class), eq("orderId"), eq(Payment.class), eq(String.class)))
+                .thenReturn(List.of(stored.orderId()));
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class))).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        doThrow(new RuntimeException("Mongo is down")).when(paymentRollupService).record(anyList());
+
+        assertDoesNotThrow(() -> paymentService.createAll(List.of(first, second, stored)));
+
+        // Then
+        verify(bulkOperations).insert(capture.capture());
+        verify(bulkOperations).execute();
+        var payments = capture.getValue();
+        assertAll(
+                () -> assertEquals(List.of(first.orderId(), second.orderId()),
+                        payments.stream().map(Payment::getOrderId).toList()),
+                () -> assertTrue(payments.stream().allMatch(Payment::getRollupPending))
         );
+        verify(paymentRollupService).record(payments);
+        verify(paymentSummaryCache, never()).record(anyList());
+    }
+
+    @Test
+    @DisplayName("Should not record rollups again when a batch whose rollup write failed is redelivered")
+    void givenRollupFailure_whenBatchRedelivered_thenLeavesRollupsToReconciliation() {
+        // Given
+        var event = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var bulkOperations = mock(BulkOperations.class);
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class))).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        doThrow(new RuntimeException("Mongo is down")).when(paymentRollupService).record(anyList());
+
+        paymentService.createAll(List.of(event));
+
+        when(mongoTemplate.findDistinct(any(Query.class), eq("orderId"), eq(Payment.class), eq(String.class)))
+                .thenReturn(List.of(event.orderId()));
+
+        paymentService.createAll(List.of(event));
+
+        // Then
+        verify(paymentHandlerService, times(1)).handlePaymentAsync(any(PaymentRequest.class));
+        verify(paymentRollupService, times(1)).record(anyList());
+        verify(paymentSummaryCache, never()).record(anyList());
+    }
+
+    @Test
+    @DisplayName("Should insert payments on the calling thread with outbox flag when statuses resolve on other threads")
+    void givenStatusesOnOtherThreads_whenCreateAll_thenInsertsOnCallerThreadForOutbox() {
+        // Given
+        var first = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var second = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var bulkOperations = mock(BulkOperations.class);
+        var insertThread = new AtomicReference<Thread>();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class)))
+                .thenReturn(Mono.just(PaymentStatus.PAID).publishOn(Schedulers.parallel()));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            insertThread.set(Thread.currentThread());
+            return bulkOperations;
+        });
+
+        paymentService.createAll(List.of(first, second));
+
+        // Then
+        verify(bulkOperations).insert(capture.capture());
+        assertAll(
+                () -> assertSame(Thread.currentThread(), insertThread.get()),
+                () -> assertEquals(2, capture.getValue().size()),
+                () -> assertTrue(capture.getValue().stream().allMatch(Payment::getOutboxPending))
+        );
+    }
+
+    @Test
+    @DisplayName("Should save payments before failed one and report its index when handling fails")
+    void givenFailingEvent_whenCreateAll_thenSavesPrefixAndThrowsWithIndex() {
+        // Given
+        var first = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var second = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var third = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 30L);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class)))
+                .thenReturn(Mono.just(PaymentStatus.PAID))
+                .thenReturn(Mono.error(new RuntimeException("Provider is down")))
+                .thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        var exception = assertThrows(PaymentBatchException.class,
+                () -> paymentService.createAll(List.of(first, second, third)));
+
+        // Then
+        verify(paymentHandlerService, times(3)).handlePaymentAsync(any(PaymentRequest.class));
+        verify(bulkOperations).insert(capture.capture());
+        assertAll(
+                () -> assertEquals(1, exception.getIndex()),
+                () -> assertEquals(1, capture.getValue().size()),
+                () -> assertEquals(first.orderId(), capture.getValue().get(0).getOrderId())
+        );
+    }
+
+    @Test
+    @DisplayName("Should skip duplicated and already stored orders when batch contains redeliveries")
+    void givenRedeliveredEvents_whenCreateAll_thenSkipsDuplicates() {
+        // Given
+        var stored = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var fresh = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+        recentOrderFilter.put(stored.orderId());
+
+        // When
+        when(mongoTemplate.findDistinct(any(Query.class), eq("orderId"), eq(Payment.class), eq(String.class)))
+                .thenReturn(List.of(stored.orderId()));
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class))).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        paymentService.createAll(List.of(stored, fresh, fresh));
+
+        // Then
+        verify(paymentHandlerService, times(1)).handlePaymentAsync(any(PaymentRequest.class));
+        verify(bulkOperations).insert(capture.capture());
+        assertAll(
+                () -> assertEquals(1, capture.getValue().size()),
+                () -> assertEquals(fresh.orderId(), capture.getValue().get(0).getOrderId()),
+                () -> assertTrue(recentOrderFilter.mightContain(fresh.orderId()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should map a redelivered batch onto the stored payment ids and skip them as duplicates")
+    void givenRedeliveredBatchUnknownToFilter_whenCreateAll_thenSkipsStoredPayments() {
+        // Given
+        var stored = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var fresh = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 20L);
+        var bulkOperations = mock(BulkOperations.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Payment>> capture = ArgumentCaptor.forClass(List.class);
+        var bulkException = new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                        List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)),
+                        null, new ServerAddress(), Set.of()));
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class))).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkException);
+
+        paymentService.createAll(List.of(stored, fresh));
+
+        // Then
+        verify(bulkOperations).insert(capture.capture());
+        var payments = capture.getValue();
+        assertAll(
+                () -> assertEquals(UUID.nameUUIDFromBytes(("payment:" + stored.orderId()).getBytes()),
+                        payments.get(0).getId()),
+                () -> assertEquals(UUID.nameUUIDFromBytes(("payment:" + fresh.orderId()).getBytes()),
+                        payments.get(1).getId())
+        );
+        verify(paymentRollupService).record(List.of(payments.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should ignore duplicate key errors and report other failures with their batch index")
+    void givenBulkErrors_whenCreateAll_thenIgnoresDuplicatesAndThrowsWithBatchIndex() {
+        // Given
+        var duplicate = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), 10L);
+        var invalid = new OrderCreatedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(), -1L);
+        var bulkOperations = mock(BulkOperations.class);
+        var errors = List.of(
+                new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0),
+                new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1)
+        );
+        var bulkException = new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, null,
+                        new ServerAddress(), Set.of()));
+
+        // When
+        when(paymentHandlerService.handlePaymentAsync(any(PaymentRequest.class))).thenReturn(Mono.just(PaymentStatus.PAID));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(bulkException);
+
+        var exception = assertThrows(PaymentBatchException.class,
+                () -> paymentService.createAll(List.of(duplicate, duplicate, invalid)));
+
+        // Then
+        assertEquals(2, exception.getIndex());
+        verify(paymentRollupService).record(List.of());
     }
 
     private Payment getPayment() {
@@ -0,0 +1,170 @@
+package com.arsiwooqq.paymentservice.service.impl;
+
+import com.arsiwooqq.paymentservice.enums.PaymentStatus;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefetchingPaymentStatusSourceTest {
+
+    @RegisterExtension
+    static WireMockExtension wireMockServer = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @Test
+    @DisplayName("Should serve statuses from a single block request when buffer is filled")
+    void givenBlockOfNumbers_whenNextStatus_thenServesFromBuffer() {
+        // Given
+        stubNumbers(100, Duration.ZERO);
+        var source = source(100, 10, Duration.ofSeconds(1));
+
+        // When
+        source.prefetch();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> source.buffered() == 100);
+
+        // Then
+        for (int i = 0; i < 50; i++) {
+            StepVerifier.create(source.nextStatus())
+                    .expectNext(PaymentStatus.PAID)
+                    .verifyComplete();
+        }
+        assertEquals(50, source.buffered());
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/random"))
+                .withQueryParam("count", equalTo("100")));
+    }
+
+    @Test
+    @DisplayName("Should wait for refill when buffer is empty and provider is fast")
+    void givenEmptyBuffer_whenNextStatus_thenWaitsForRefill() {
+        // Given
+        stubNumbers(10, Duration.ZERO);
+        var source = source(10, 5, Duration.ofSeconds(10));
+
+        // When
+        var result = source.nextStatus();
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(PaymentStatus.PAID)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should return FAILED Payment Status when random number is odd")
+    void givenOddNumbers_whenNextStatus_thenReturnsFailed() {
+        // Given
+        stubNumbers(10, 1, Duration.ZERO);
+        var source = source(10, 5, Duration.ofSeconds(10));
+
+        // When
+        var result = source.nextStatus();
+
+        // Then
+        StepVerifier.create(result)
+                .expectNext(PaymentStatus.FAILED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should decide status locally when provider is slower than max wait")
+    void givenSlowProvider_whenNextStatus_thenFallsBackToLocalRandom() {
+        // Given
+        stubNumbers(10, Duration.ofSeconds(2));
+        var source = source(10, 5, Duration.ofMillis(50));
+
+        // When
+        var result = source.nextStatus();
+
+        // Then
+        StepVerifier.create(result)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        assertEquals(0, source.buffered());
+    }
+
+    @Test
+    @DisplayName("Should stop calling provider and fall back without waiting when circuit opens")
+    void givenFailingProvider_whenCircuitOpens_thenFallsBackImmediately() {
+        // Given
+        wireMockServer.stubFor(get(urlPathEqualTo("/random")).willReturn(aResponse().withStatus(503)));
+        var circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        var source = source(10, 5, Duration.ofSeconds(5), circuitBreaker);
+
+        // When
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            source.nextStatus().block();
+            return circuitBreaker.getState() == CircuitBreaker.State.OPEN;
+        });
+        var requests = wireMockServer.getAllServeEvents().size();
+        var start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            StepVerifier.create(source.nextStatus())
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(requests, wireMockServer.getAllServeEvents().size());
+    }
+
+    private PrefetchingPaymentStatusSource source(int capacity, int lowWaterMark, Duration maxWait) {
+        return source(capacity, lowWaterMark, maxWait, CircuitBreaker.ofDefaults("test"));
+    }
+
+    private PrefetchingPaymentStatusSource source(int capacity, int lowWaterMark, Duration maxWait,
+                                                  CircuitBreaker circuitBreaker) {
+        return new PrefetchingPaymentStatusSource(
+                WebClient.create(),
+                wireMockServer.baseUrl() + "/random?min=0&max=2&count=1",
+                capacity,
+                capacity,
+                lowWaterMark,
+                Duration.ofSeconds(5),
+                maxWait,
+                circuitBreaker,
+                new SimpleMeterRegistry()
+        );
+    }
+
+    private void stubNumbers(int count, Duration delay) {
+        stubNumbers(count, 0, delay);
+    }
+
+    private void stubNumbers(int count, long number, Duration delay) {
+        var body = LongStream.range(0, count)
+                .mapToObj(i -> String.valueOf(number))
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMockServer.stubFor(get(urlPathEqualTo("/random")).willReturn(
+                aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay((int) delay.toMillis())
+                        .withBody(body)
+        ));
+    }
+}
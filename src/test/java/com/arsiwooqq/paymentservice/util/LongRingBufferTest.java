@@ -0,0 +1,92 @@
+package com.arsiwooqq.paymentservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongRingBufferTest {
+
+    @Test
+    @DisplayName("Should round capacity up to power of two")
+    void givenCapacity_whenCreate_thenRoundsUpToPowerOfTwo() {
+        assertAll(
+                () -> assertEquals(1024, new LongRingBuffer(1000).capacity()),
+                () -> assertEquals(8, new LongRingBuffer(8).capacity()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new LongRingBuffer(0))
+        );
+    }
+
+    @Test
+    @DisplayName("Should return values in FIFO order and reject offers when full")
+    void givenFullBuffer_whenOffer_thenRejects() {
+        // Given
+        var buffer = new LongRingBuffer(2);
+
+        // When
+        var first = buffer.offer(1);
+        var second = buffer.offer(2);
+        var third = buffer.offer(3);
+
+        // Then
+        assertAll(
+                () -> assertTrue(first),
+                () -> assertTrue(second),
+                () -> assertFalse(third),
+                () -> assertEquals(0, buffer.remainingCapacity()),
+                () -> assertEquals(OptionalLong.of(1), buffer.poll()),
+                () -> assertEquals(OptionalLong.of(2), buffer.poll()),
+                () -> assertEquals(OptionalLong.empty(), buffer.poll()),
+                () -> assertTrue(buffer.offer(4)),
+                () -> assertEquals(OptionalLong.of(4), buffer.poll())
+        );
+    }
+
+    @Test
+    @DisplayName("Should hand out every value exactly once when polled concurrently")
+    void givenConcurrentConsumers_whenPoll_thenEveryValueTakenOnce() throws InterruptedException {
+        // Given
+        var buffer = new LongRingBuffer(64);
+        var total = 10_000;
+        Set<Long> taken = ConcurrentHashMap.newKeySet();
+        var consumers = 2;
+        var done = new CountDownLatch(consumers);
+        var duplicates = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(consumers);
+
+        // When
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(() -> {
+                while (taken.size() < total && !Thread.currentThread().isInterrupted()) {
+                    buffer.poll().ifPresent(value -> {
+                        if (!taken.add(value)) {
+                            duplicates.incrementAndGet();
+                        }
+                    });
+                }
+                done.countDown();
+            });
+        }
+        for (long value = 0; value < total; ) {
+            if (buffer.offer(value)) {
+                value++;
+            }
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdownNow();
+        assertEquals(0, duplicates.get());
+        assertEquals(total, taken.size());
+        assertEquals(0, buffer.size());
+    }
+}
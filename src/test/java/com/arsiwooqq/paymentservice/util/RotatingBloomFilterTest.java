@@ -0,0 +1,67 @@
+package com.arsiwooqq.paymentservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RotatingBloomFilterTest {
+
+    @Test
+    @DisplayName("Should contain every key put within the current generation")
+    void givenPutKeys_whenMightContain_thenReturnsTrue() {
+        // Given
+        var filter = new RotatingBloomFilter(1_000, 0.01);
+        var keys = IntStream.range(0, 1_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        // When
+        keys.forEach(filter::put);
+
+        // Then
+        assertTrue(keys.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    @DisplayName("Should keep false positive rate close to configured probability")
+    void givenFullGeneration_whenMightContainUnknownKeys_thenFalsePositiveRateIsBounded() {
+        // Given
+        var filter = new RotatingBloomFilter(10_000, 0.01);
+        IntStream.range(0, 9_999).forEach(i -> filter.put("order-" + i));
+
+        // When
+        var falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("unknown-" + i))
+                .count();
+
+        // Then
+        assertTrue(falsePositives < 300, "False positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should forget keys older than two generations")
+    void givenTwoRotations_whenMightContainOldKey_thenReturnsFalse() {
+        // Given
+        var filter = new RotatingBloomFilter(100, 0.001);
+        filter.put("old-order");
+
+        // When
+        IntStream.range(0, 99).forEach(i -> filter.put("previous-" + i));
+        var containedAfterFirstRotation = filter.mightContain("old-order");
+        IntStream.range(0, 100).forEach(i -> filter.put("current-" + i));
+
+        // Then
+        assertAll(
+                () -> assertTrue(containedAfterFirstRotation),
+                () -> assertFalse(filter.mightContain("old-order"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject false positive probability outside of (0, 1)")
+    void givenInvalidProbability_whenCreate_thenThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new RotatingBloomFilter(100, 1.0));
+    }
+}